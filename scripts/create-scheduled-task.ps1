@@ -4,7 +4,9 @@
 param(
     [string]$ProjectPath = (Split-Path -Parent (Split-Path -Parent $PSScriptRoot)),
     [string]$TaskName = "Kiosk Automation on Login",
-    [int]$DelaySeconds = 30
+    [int]$DelaySeconds = 30,
+    # Start the resident daemon at logon; it then runs the flow on daemon.schedule
+    [switch]$Daemon
 )
 
 # Check if running as Administrator
@@ -56,21 +58,26 @@ if ($existingTask) {
 
 try {
     # Create action
+    $scriptArgs = "-ExecutionPolicy Bypass -NoProfile -File `"$scriptPath`""
+    if ($Daemon) {
+        $scriptArgs += " -Daemon"
+    }
     $action = New-ScheduledTaskAction -Execute "powershell.exe" `
-        -Argument "-ExecutionPolicy Bypass -NoProfile -File `"$scriptPath`"" `
+        -Argument $scriptArgs `
         -WorkingDirectory $ProjectPath
 
     # Create trigger (on logon with delay)
     $trigger = New-ScheduledTaskTrigger -AtLogOn
     $trigger.Delay = "PT${DelaySeconds}S"  # Delay in seconds
 
-    # Create settings
+    # Create settings (the daemon runs until logoff, so it gets no time limit)
+    $timeLimit = if ($Daemon) { [TimeSpan]::Zero } else { New-TimeSpan -Hours 1 }
     $settings = New-ScheduledTaskSettingsSet `
         -AllowStartIfOnBatteries `
         -DontStopIfGoingOnBatteries `
         -StartWhenAvailable `
         -RunOnlyIfNetworkAvailable:$false `
-        -ExecutionTimeLimit (New-TimeSpan -Hours 1) `
+        -ExecutionTimeLimit $timeLimit `
         -RestartCount 3 `
         -RestartInterval (New-TimeSpan -Minutes 5)
 
@@ -99,6 +106,9 @@ try {
     Write-Host "  Name: $TaskName" -ForegroundColor White
     Write-Host "  Trigger: At logon (with $DelaySeconds second delay)" -ForegroundColor White
     Write-Host "  Script: $scriptPath" -ForegroundColor White
+    if ($Daemon) {
+        Write-Host "  Mode: resident daemon (status in target\daemon\status.json)" -ForegroundColor White
+    }
     Write-Host ""
     Write-Host "To test the task:" -ForegroundColor Yellow
     Write-Host "  1. Open Task Scheduler" -ForegroundColor White
@@ -1,5 +1,10 @@
 # PowerShell script to run kiosk automation
 # This script can be scheduled via Windows Task Scheduler
+# With -Daemon it starts the resident daemon, which runs the flow on daemon.schedule until stopped
+
+param(
+    [switch]$Daemon
+)
 
 # Set the project directory
 $scriptPath = Split-Path -Parent $MyInvocation.MyCommand.Path
@@ -34,18 +39,27 @@ try {
         throw "Maven (mvn) command not found. Please ensure Maven is installed and in PATH."
     }
     
-    # Run the automation
-    Write-Log "Executing kiosk automation..."
-    $result = & mvn exec:java -Dexec.mainClass="com.kiosk.KioskAutomationRunner" -Dexec.classpathScope=compile 2>&1
-    
-    # Write output to log
-    $result | ForEach-Object { Write-Log $_ }
+    # Run the automation; output is logged as it arrives, since the daemon does not exit
+    $execArgs = ""
+    if ($Daemon) {
+        Write-Log "Starting kiosk automation daemon..."
+        $execArgs = "--daemon"
+    } else {
+        Write-Log "Executing kiosk automation..."
+    }
+    & mvn exec:java -Dexec.mainClass="com.kiosk.KioskAutomationRunner" -Dexec.classpathScope=compile "-Dexec.args=$execArgs" 2>&1 |
+        ForEach-Object { Write-Log $_ }
     
     if ($LASTEXITCODE -eq 0) {
         Write-Log "========================================"
         Write-Log "Automation completed successfully"
         Write-Log "========================================"
         exit 0
+    } elseif ($LASTEXITCODE -eq 2) {
+        Write-Log "========================================"
+        Write-Log "Kiosk is down; run skipped (see the circuit breaker message above)"
+        Write-Log "========================================"
+        exit $LASTEXITCODE
     } else {
         Write-Log "========================================"
         Write-Log "Automation failed with exit code: $LASTEXITCODE"
@@ -0,0 +1,68 @@
+package com.kiosk.jmh;
+
+import com.kiosk.pages.LoginPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building page objects and locators, measured against a stub driver.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PageObjectBenchmark {
+
+    private StubWebDriver driver;
+
+    @Setup
+    public void setUp() {
+        driver = new StubWebDriver();
+    }
+
+    /**
+     * Full LoginPage construction, including its generated element accessors
+     */
+    @Benchmark
+    public LoginPage newLoginPage() {
+        return new LoginPage(driver);
+    }
+
+    @Benchmark
+    public By byId() {
+        return By.id("username");
+    }
+
+    @Benchmark
+    public By byXpath() {
+        return By.xpath("//input[@type='text' or @name='username' or @id='username' or contains(@class, 'user')]");
+    }
+
+    /**
+     * One fallback chain as LoginPage builds it per instance
+     */
+    @Benchmark
+    public List<By> candidateChain() {
+        return Arrays.asList(
+            By.xpath("//input[@type='text' or @name='username' or @id='username' or contains(@class, 'user')]"),
+            By.id("username"),
+            By.name("username"),
+            By.xpath("//input[@type='text']")
+        );
+    }
+}
@@ -0,0 +1,65 @@
+package com.kiosk.pages;
+
+import com.kiosk.jmh.StubWebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the generated LoginPage_Elements accessors, which replaced the
+ * PageFactory.initElements pass over @FindBy fields. Lives in LoginPage's
+ * package because the generated class is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoginPageElementsBenchmark {
+
+    private StubWebDriver driver;
+    private LoginPage.Elements elements;
+
+    @Setup
+    public void setUp() {
+        driver = new StubWebDriver();
+        elements = new LoginPage_Elements(driver);
+        elements.loginButton();
+    }
+
+    /**
+     * Construction alone, as LoginPage does it per instance
+     */
+    @Benchmark
+    public LoginPage.Elements construct() {
+        return new LoginPage_Elements(driver);
+    }
+
+    /**
+     * Construction plus the first accessor call, which creates the element handle
+     * (the element itself is looked up when first used)
+     */
+    @Benchmark
+    public WebElement constructAndFirstAccess() {
+        return new LoginPage_Elements(driver).loginButton();
+    }
+
+    /**
+     * Later accessor calls on the same page
+     */
+    @Benchmark
+    public WebElement cachedAccess() {
+        return elements.loginButton();
+    }
+}
@@ -0,0 +1,42 @@
+package com.kiosk.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of ConfigReader accessors, which look up and parse the property on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigReaderBenchmark {
+
+    @Benchmark
+    public String getBrowser() {
+        return ConfigReader.getBrowser();
+    }
+
+    @Benchmark
+    public int getTimeout() {
+        return ConfigReader.getTimeout();
+    }
+
+    @Benchmark
+    public boolean isHeadless() {
+        return ConfigReader.isHeadless();
+    }
+
+    @Benchmark
+    public double getAdaptiveWaitMultiplier() {
+        return ConfigReader.getAdaptiveWaitMultiplier();
+    }
+}
@@ -0,0 +1,38 @@
+package com.kiosk.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of DesktopAutomation's character to key code mapping, without a Robot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DesktopAutomationBenchmark {
+
+    private final char[] text = "Kiosk user arun10\tpassword 2024\n".toCharArray();
+
+    /**
+     * Key codes for a typical line of typed text
+     */
+    @Benchmark
+    public void getKeyCodeForText(Blackhole blackhole) {
+        for (char c : text) {
+            blackhole.consume(DesktopAutomation.getKeyCode(c));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.kiosk.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building browser options in DriverManager, without launching a browser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DriverOptionsBenchmark {
+
+    @Benchmark
+    public ChromeOptions chromeOptions() {
+        return DriverManager.chromeOptions();
+    }
+
+    @Benchmark
+    public FirefoxOptions firefoxOptions() {
+        return DriverManager.firefoxOptions();
+    }
+
+    @Benchmark
+    public EdgeOptions edgeOptions() {
+        return DriverManager.edgeOptions();
+    }
+}
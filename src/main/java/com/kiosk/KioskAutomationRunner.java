@@ -1,77 +1,173 @@
 package com.kiosk;
 
+import com.kiosk.daemon.KioskDaemon;
+import com.kiosk.flow.FlowEngine;
 import com.kiosk.pages.LoginPage;
+import com.kiosk.utils.AdaptiveWaitPolicy;
 import com.kiosk.utils.ConfigReader;
 import com.kiosk.utils.DriverManager;
+import com.kiosk.utils.KioskCircuitBreaker;
+import com.kiosk.utils.KioskProbe;
+import com.kiosk.utils.StartupPipeline;
+import com.kiosk.utils.Tracer;
+import com.kiosk.utils.WaitPolicy;
 import org.openqa.selenium.WebDriver;
 
+import java.util.Arrays;
+
 /**
  * Main runner class for kiosk automation.
- * This class can be executed directly or scheduled via Windows Task Scheduler.
+ * This class can be executed directly or scheduled via Windows Task Scheduler,
+ * or started once with --daemon to run the flow on its own cron schedule.
  */
 public class KioskAutomationRunner {
     
+    /**
+     * Exit code of a run skipped or stopped because the kiosk is down
+     */
+    public static final int EXIT_KIOSK_DOWN = 2;
+    
+    /**
+     * Leave a headed browser up for someone to look at, ending early if its window is closed
+     */
+    private static void keepBrowserOpen(WebDriver driver, int seconds) throws InterruptedException {
+        System.out.println("Keeping browser open for " + seconds + " seconds (close the window to finish now)...");
+        long deadline = System.currentTimeMillis() + seconds * 1000L;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                if (driver.getWindowHandles().isEmpty()) {
+                    return;
+                }
+            } catch (Exception e) {
+                return;
+            }
+            Thread.sleep(250);
+        }
+    }
+    
+    /**
+     * Navigate to the kiosk, log in (restoring a cached session when one is
+     * available) and wait for the post-login page, as FlowEngine steps so a
+     * crashed browser is replaced and the flow resumes from its last checkpoint.
+     * The driver in use afterwards is DriverManager.getDriver(). Returns the final URL.
+     */
+    public static String runFlow(WebDriver driver) {
+        String kioskUrl = ConfigReader.getKioskUrl();
+        String username = ConfigReader.getUsername();
+        String browser = ConfigReader.getBrowser();
+        
+        FlowEngine flow = new FlowEngine("kiosk-login " + username + "@" + kioskUrl,
+                () -> DriverManager.initializeDriver(browser))
+            .step("navigate", webDriver -> {
+                System.out.println("Navigating to kiosk...");
+                try (Tracer.Span step = Tracer.span("runner.navigate")) {
+                    webDriver.get(kioskUrl);
+                }
+                System.out.println("Navigation completed");
+                System.out.println();
+            })
+            .step("login", webDriver -> {
+                // Restores a cached session when one is available
+                System.out.println("Performing login...");
+                boolean restored = new LoginPage(webDriver).loginWithCachedSession(kioskUrl, username,
+                    ConfigReader.getPassword());
+                System.out.println(restored ? "Login completed from cached session" : "Login completed");
+                System.out.println();
+            })
+            .step("postLoginCheck", webDriver -> {
+                System.out.println("Waiting for page to load after login...");
+                LoginPage loginPage = new LoginPage(webDriver);
+                try (Tracer.Span step = Tracer.span("runner.postLoginWait")) {
+                    AdaptiveWaitPolicy.await("runner.postLogin", 5000, loginPage::isLoginFormGone);
+                }
+                
+                System.out.println("Post-login status:");
+                System.out.println("  Page Title: " + webDriver.getTitle());
+                System.out.println("  Current URL: " + webDriver.getCurrentUrl());
+                System.out.println();
+            });
+        flow.run(driver);
+        return flow.getDriver().getCurrentUrl();
+    }
+    
+    /**
+     * Save a screenshot of the driver's page as error_screenshot_<millis>.png, if possible
+     */
+    public static void saveErrorScreenshot(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            byte[] screenshot = ((org.openqa.selenium.TakesScreenshot) driver)
+                .getScreenshotAs(org.openqa.selenium.OutputType.BYTES);
+            java.nio.file.Files.write(
+                java.nio.file.Paths.get("error_screenshot_" + 
+                    System.currentTimeMillis() + ".png"),
+                screenshot
+            );
+            System.out.println("Error screenshot saved");
+        } catch (Exception screenshotException) {
+            System.err.println("Failed to save screenshot: " + screenshotException.getMessage());
+        }
+    }
+    
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--daemon") || ConfigReader.isDaemonEnabled()) {
+            KioskDaemon.fromConfig().run();
+            return;
+        }
+        
         System.out.println("========================================");
         System.out.println("Kiosk Automation Runner");
         System.out.println("========================================");
         System.out.println("Started at: " + java.time.LocalDateTime.now());
         System.out.println();
         
+        // A kiosk known to be down is not tried again until its back-off has passed
+        KioskCircuitBreaker breaker = ConfigReader.isBreakerEnabled()
+            ? KioskCircuitBreaker.forKiosk(ConfigReader.getKioskUrl()) : null;
+        if (breaker != null && !breaker.allowRun()) {
+            System.out.println("Skipping run: kiosk " + breaker.describe());
+            System.exit(EXIT_KIOSK_DOWN);
+        }
+        KioskProbe.Result preflight = null;
+        if (breaker != null && breaker.getState() == KioskCircuitBreaker.State.HALF_OPEN) {
+            // It was down: check it before paying for a browser
+            System.out.println("Kiosk was down, probing it before launching a browser...");
+            if (!breaker.preflight(ConfigReader.getKioskUrl(), ConfigReader.getProbeTimeoutMillis())) {
+                System.exit(EXIT_KIOSK_DOWN);
+            }
+            // Passed just now, so the pipeline does not probe again
+            preflight = breaker.getLastProbe();
+        }
+        
         WebDriver driver = null;
+        // Config, driver resolution, kiosk probe and browser launch overlap; joined before navigation
+        StartupPipeline startup = StartupPipeline.start(breaker, preflight);
+        WaitPolicy.beginRun();
+        Tracer.Span run = Tracer.span("KioskAutomationRunner.run");
         
         try {
+            System.out.println("Starting up (loading config, resolving driver, probing kiosk, launching browser)...");
+            try (Tracer.Span step = Tracer.span("runner.startup")) {
+                driver = startup.join();
+            }
+            System.out.println("WebDriver initialized successfully");
+            System.out.println();
+            
             // Read configuration
-            String kioskUrl = ConfigReader.getKioskUrl();
-            String username = ConfigReader.getUsername();
-            String browser = ConfigReader.getBrowser();
             boolean headless = ConfigReader.isHeadless();
             
             System.out.println("Configuration:");
-            System.out.println("  Kiosk URL: " + kioskUrl);
-            System.out.println("  Username: " + username);
-            System.out.println("  Browser: " + browser);
+            System.out.println("  Kiosk URL: " + ConfigReader.getKioskUrl());
+            System.out.println("  Username: " + ConfigReader.getUsername());
+            System.out.println("  Browser: " + ConfigReader.getBrowser());
             System.out.println("  Headless: " + headless);
             System.out.println();
             
-            // Initialize driver
-            System.out.println("Initializing WebDriver...");
-            driver = DriverManager.initializeDriver(browser);
-            System.out.println("WebDriver initialized successfully");
-            System.out.println();
-            
-            // Navigate to kiosk
-            System.out.println("Navigating to kiosk...");
-            driver.get(kioskUrl);
-            System.out.println("Navigation completed");
-            System.out.println();
-            
-            // Initialize page objects
-            LoginPage loginPage = new LoginPage(driver);
-            
-            // Wait for login form
-            System.out.println("Waiting for login form...");
-            loginPage.waitForLoginForm();
-            System.out.println("Login form loaded");
-            System.out.println();
-            
-            // Perform login
-            System.out.println("Performing login...");
-            loginPage.login(username, ConfigReader.getPassword());
-            System.out.println("Login completed");
-            System.out.println();
-            
-            // Wait for post-login page
-            System.out.println("Waiting for page to load after login...");
-            Thread.sleep(5000);
-            
-            String currentUrl = driver.getCurrentUrl();
-            String pageTitle = driver.getTitle();
-            
-            System.out.println("Post-login status:");
-            System.out.println("  Page Title: " + pageTitle);
-            System.out.println("  Current URL: " + currentUrl);
-            System.out.println();
+            runFlow(driver);
+            // A new browser if the flow had to recover from a crash
+            driver = DriverManager.getDriver();
             
             System.out.println("========================================");
             System.out.println("Automation completed successfully!");
@@ -80,8 +176,7 @@ public class KioskAutomationRunner {
             
             // Keep browser open for a few seconds if not headless
             if (!headless) {
-                System.out.println("Keeping browser open for 10 seconds...");
-                Thread.sleep(10000);
+                keepBrowserOpen(driver, ConfigReader.getKeepOpenSeconds());
             }
             
         } catch (Exception e) {
@@ -89,22 +184,11 @@ public class KioskAutomationRunner {
             e.printStackTrace();
             
             // Take screenshot on error if possible
-            if (driver != null) {
-                try {
-                    byte[] screenshot = ((org.openqa.selenium.TakesScreenshot) driver)
-                        .getScreenshotAs(org.openqa.selenium.OutputType.BYTES);
-                    java.nio.file.Files.write(
-                        java.nio.file.Paths.get("error_screenshot_" + 
-                            System.currentTimeMillis() + ".png"),
-                        screenshot
-                    );
-                    System.out.println("Error screenshot saved");
-                } catch (Exception screenshotException) {
-                    System.err.println("Failed to save screenshot: " + screenshotException.getMessage());
-                }
-            }
+            driver = DriverManager.getDriver();
+            saveErrorScreenshot(driver);
             
-            System.exit(1);
+            boolean kioskDown = breaker != null && breaker.getState() == KioskCircuitBreaker.State.OPEN;
+            System.exit(kioskDown ? EXIT_KIOSK_DOWN : 1);
         } finally {
             // Close driver
             if (driver != null) {
@@ -112,6 +196,7 @@ public class KioskAutomationRunner {
                 DriverManager.quitDriver();
                 System.out.println("Browser closed");
             }
+            run.close();
         }
     }
 }
@@ -0,0 +1,41 @@
+package com.kiosk.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how to find a page element. Put it on the no-argument WebElement
+ * methods of an interface nested in a page object; at build time
+ * LocatorProcessor generates the implementation (named Page_Interface) that
+ * creates each element lazily and re-finds it when it goes stale.
+ *
+ * <pre>
+ * interface Elements {
+ *     &#64;Locate(id = "login-button")
+ *     WebElement loginButton();
+ * }
+ * private final Elements elements = new LoginPage_Elements(driver);
+ * </pre>
+ *
+ * Exactly one strategy must be set.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+public @interface Locate {
+
+    String id() default "";
+
+    String name() default "";
+
+    String css() default "";
+
+    String xpath() default "";
+
+    String className() default "";
+
+    String linkText() default "";
+}
@@ -0,0 +1,30 @@
+package com.kiosk.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the application state a test method starts from, e.g. "loggedIn".
+ * StateSchedulingListener brings the thread's driver into that state before
+ * the method runs: the first time by running the state's steps, afterwards by
+ * restoring a snapshot of cookies and web storage.
+ *
+ * <pre>
+ * &#64;Test
+ * &#64;RequiresState(KioskStates.LOGGED_IN)
+ * public void testPostLoginPage() { ... }
+ * </pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RequiresState {
+
+    /**
+     * Name of a state defined with StateScheduler.define
+     */
+    String value();
+}
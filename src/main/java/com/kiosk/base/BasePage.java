@@ -1,15 +1,21 @@
 package com.kiosk.base;
 
+import com.kiosk.utils.ConfigReader;
+import com.kiosk.utils.LocatorRegistry;
+import com.kiosk.utils.Tracer;
+import com.kiosk.utils.WaitPolicy;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Base Page class that contains common methods for all page objects.
@@ -18,34 +24,55 @@ import java.util.List;
 public class BasePage {
     
     protected WebDriver driver;
-    protected WebDriverWait wait;
-    protected static final int DEFAULT_TIMEOUT = 15;
+    protected PageReadiness.Mode pageReadyMode;
+    protected boolean useObserverWait = "observer".equalsIgnoreCase(ConfigReader.getWaitEngine());
+    
+    // Returns [index, element] for the first candidate with a visible, enabled match, else null
+    private static final String PROBE_SCRIPT = LocatorScripts.HELPERS +
+        "var candidates = arguments[0];" +
+        "for (var c = 0; c < candidates.length; c++) {" +
+        "  var found; try { found = find(candidates[c][0], candidates[c][1]); } catch (err) { found = []; }" +
+        "  for (var n = 0; n < found.length; n++) { if (usable(found[n])) { return [c, found[n]]; } }" +
+        "}" +
+        "return null;";
     
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT));
-        PageFactory.initElements(driver, this);
+        this.pageReadyMode = PageReadiness.parseMode(ConfigReader.getPageReadyMode());
+        if (pageReadyMode != PageReadiness.Mode.READY_STATE) {
+            // Attach network listeners now so requests fired by the first action are seen
+            PageReadiness.forDriver(driver);
+        }
     }
     
     /**
      * Wait for element to be visible
      */
     protected WebElement waitForElement(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        if (useObserverWait) {
+            return ObserverWait.until(driver, locator, ObserverWait.Condition.VISIBLE, WaitPolicy.stepTimeout());
+        }
+        return WaitPolicy.until(driver, ExpectedConditions.visibilityOfElementLocated(locator), WaitPolicy.stepTimeout());
     }
     
     /**
      * Wait for element to be clickable
      */
     protected WebElement waitForElementToBeClickable(By locator) {
-        return wait.until(ExpectedConditions.elementToBeClickable(locator));
+        if (useObserverWait) {
+            return ObserverWait.until(driver, locator, ObserverWait.Condition.CLICKABLE, WaitPolicy.stepTimeout());
+        }
+        return WaitPolicy.until(driver, ExpectedConditions.elementToBeClickable(locator), WaitPolicy.stepTimeout());
     }
     
     /**
      * Wait for element to be present
      */
     protected WebElement waitForElementPresence(By locator) {
-        return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        if (useObserverWait) {
+            return ObserverWait.until(driver, locator, ObserverWait.Condition.PRESENT, WaitPolicy.stepTimeout());
+        }
+        return WaitPolicy.until(driver, ExpectedConditions.presenceOfElementLocated(locator), WaitPolicy.stepTimeout());
     }
     
     /**
@@ -56,6 +83,18 @@ public class BasePage {
         element.click();
     }
     
+    /**
+     * Click an element a locator probe already found; it is only looked up
+     * again (and waited for) if it has gone stale since
+     */
+    protected void click(LocatorMatch match) {
+        try {
+            match.getElement().click();
+        } catch (StaleElementReferenceException e) {
+            click(match.getLocator());
+        }
+    }
+    
     /**
      * Click using JavaScript (useful for elements not normally clickable)
      */
@@ -74,6 +113,19 @@ public class BasePage {
         element.sendKeys(text);
     }
     
+    /**
+     * Enter text into an element a locator probe already found; it is only
+     * looked up again (and waited for) if it has gone stale since
+     */
+    protected void enterText(LocatorMatch match, String text) {
+        try {
+            match.getElement().clear();
+            match.getElement().sendKeys(text);
+        } catch (StaleElementReferenceException e) {
+            enterText(match.getLocator(), text);
+        }
+    }
+    
     /**
      * Get text from an element
      */
@@ -94,6 +146,29 @@ public class BasePage {
         }
     }
     
+    /**
+     * Check instantly (without waiting) if element is displayed
+     */
+    protected boolean isElementDisplayedNow(By locator) {
+        try {
+            for (WebElement element : driver.findElements(locator)) {
+                if (element.isDisplayed()) {
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            // Stale or detached element counts as not displayed
+        }
+        return false;
+    }
+    
+    /**
+     * Check instantly (without waiting) that no element matches the locator
+     */
+    protected boolean isElementAbsent(By locator) {
+        return WaitPolicy.isAbsent(driver, locator);
+    }
+    
     /**
      * Check if element is present
      */
@@ -106,6 +181,83 @@ public class BasePage {
         }
     }
     
+    /**
+     * Find the first displayed candidate for a logical element, trying the
+     * strategy that worked last time first. Returns the match, with the element
+     * the probe found so callers can act on it without another lookup, or null
+     * if none is displayed.
+     */
+    protected LocatorMatch resolveLocator(String elementName, List<By> candidates) {
+        String page = LocatorRegistry.pageKey(getCurrentUrl());
+        List<By> ordered = LocatorRegistry.order(page, elementName, candidates);
+        LocatorMatch match = findFirstMatch(ordered);
+        
+        int missed = match == null ? ordered.size() : match.getIndex();
+        for (int i = 0; i < missed; i++) {
+            LocatorRegistry.recordMiss(page, elementName, ordered.get(i));
+        }
+        if (match == null) {
+            return null;
+        }
+        LocatorRegistry.recordSuccess(page, elementName, match.getLocator());
+        return match;
+    }
+    
+    /**
+     * Evaluate all candidate locators in the browser in a single round trip and
+     * return the first (in list order) that matches a visible, enabled element.
+     * Re-polls with backoff until the step timeout; returns null if nothing matched.
+     */
+    protected LocatorMatch findFirstMatch(List<By> candidates) {
+        try (Tracer.Span span = Tracer.span("BasePage.findFirstMatch")) {
+            List<List<Object>> remote = new ArrayList<>();
+            for (By candidate : candidates) {
+                if (candidate instanceof By.Remotable) {
+                    By.Remotable.Parameters params = ((By.Remotable) candidate).getRemoteParameters();
+                    remote.add(Arrays.asList(params.using(), params.value()));
+                } else {
+                    remote.add(Arrays.asList("unsupported", ""));
+                }
+            }
+        
+            long deadline = System.nanoTime() + WaitPolicy.stepTimeout().toNanos();
+            long backoff = WaitPolicy.pollInitialMillis();
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            while (true) {
+                Object result = js.executeScript(PROBE_SCRIPT, remote);
+                if (result instanceof List && ((List<?>) result).size() == 2) {
+                    List<?> hit = (List<?>) result;
+                    int index = ((Number) hit.get(0)).intValue();
+                    return new LocatorMatch(candidates.get(index), index, (WebElement) hit.get(1));
+                }
+            
+                // Locators the script cannot evaluate are checked through the driver
+                for (int i = 0; i < candidates.size(); i++) {
+                    if (!(candidates.get(i) instanceof By.Remotable)) {
+                        for (WebElement element : driver.findElements(candidates.get(i))) {
+                            if (element.isDisplayed() && element.isEnabled()) {
+                                return new LocatorMatch(candidates.get(i), i, element);
+                            }
+                        }
+                    }
+                }
+            
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return null;
+                }
+                try {
+                    Thread.sleep(Math.min(backoff, remaining));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+                backoff = Math.min(backoff * 2, WaitPolicy.pollMaxMillis());
+            }
+        }
+    }
+    
+    
     /**
      * Get attribute value of an element
      */
@@ -176,6 +328,21 @@ public class BasePage {
      */
     public void waitForPageLoad() {
         JavascriptExecutor js = (JavascriptExecutor) driver;
-        wait.until(webDriver -> js.executeScript("return document.readyState").equals("complete"));
+        WaitPolicy.until(driver, webDriver -> js.executeScript("return document.readyState").equals("complete"),
+            WaitPolicy.stepTimeout());
+    }
+    
+    /**
+     * Wait until the page is ready according to page.ready.mode (network idle,
+     * first contentful paint or readyState). Covers XHR-driven rendering.
+     */
+    public void waitForPageReady() {
+        try (Tracer.Span span = Tracer.span("BasePage.waitForPageReady")) {
+            PageReadiness.forDriver(driver).await(
+                pageReadyMode,
+                Duration.ofMillis(ConfigReader.getPageReadyQuietMillis()),
+                WaitPolicy.stepTimeout()
+            );
+        }
     }
 }
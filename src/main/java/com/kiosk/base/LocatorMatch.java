@@ -0,0 +1,42 @@
+package com.kiosk.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Result of probing several candidate locators at once: the element that
+ * matched and which candidate found it.
+ */
+public class LocatorMatch {
+    
+    private final By locator;
+    private final int index;
+    private final WebElement element;
+    
+    public LocatorMatch(By locator, int index, WebElement element) {
+        this.locator = locator;
+        this.index = index;
+        this.element = element;
+    }
+    
+    /**
+     * Get the candidate locator that matched
+     */
+    public By getLocator() {
+        return locator;
+    }
+    
+    /**
+     * Get the position of the matching candidate in the probed list
+     */
+    public int getIndex() {
+        return index;
+    }
+    
+    /**
+     * Get the matched element
+     */
+    public WebElement getElement() {
+        return element;
+    }
+}
@@ -0,0 +1,37 @@
+package com.kiosk.base;
+
+/**
+ * JavaScript helpers shared by the in-browser locator probe and the observer wait.
+ * They evaluate W3C locator strategies ("css selector", "xpath", ...) against the page.
+ */
+final class LocatorScripts {
+    
+    // visible(e): rendered and not hidden; usable(e): visible and enabled; find(using, value): matches in order
+    static final String HELPERS =
+        "var visible = function(e) {" +
+        "  if (!e || e.nodeType !== 1) { return false; }" +
+        "  var style = window.getComputedStyle(e);" +
+        "  return style.visibility !== 'hidden' && style.display !== 'none' && e.getClientRects().length > 0;" +
+        "};" +
+        "var usable = function(e) { return visible(e) && !e.disabled; };" +
+        "var find = function(using, value) {" +
+        "  switch (using) {" +
+        "    case 'css selector': return Array.prototype.slice.call(document.querySelectorAll(value));" +
+        "    case 'xpath':" +
+        "      var snap = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+        "      var nodes = []; for (var i = 0; i < snap.snapshotLength; i++) { nodes.push(snap.snapshotItem(i)); }" +
+        "      return nodes;" +
+        "    case 'tag name': return Array.prototype.slice.call(document.getElementsByTagName(value));" +
+        "    case 'link text':" +
+        "    case 'partial link text':" +
+        "      return Array.prototype.filter.call(document.getElementsByTagName('a'), function(a) {" +
+        "        var text = (a.innerText || '').trim();" +
+        "        return using === 'link text' ? text === value : text.indexOf(value) >= 0;" +
+        "      });" +
+        "    default: return [];" +
+        "  }" +
+        "};";
+    
+    private LocatorScripts() {
+    }
+}
@@ -0,0 +1,160 @@
+package com.kiosk.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event-driven element wait. Instead of asking the driver every 500ms whether an
+ * element is there yet, a MutationObserver is injected with executeAsyncScript and
+ * the script returns as soon as the page changes so that the condition holds.
+ *
+ * Falls back to WebDriverWait polling for locators the script cannot evaluate and
+ * when the script itself fails (e.g. the page navigates away mid-wait).
+ */
+public class ObserverWait {
+
+    /**
+     * Element state to wait for
+     */
+    public enum Condition {
+        PRESENT, VISIBLE, CLICKABLE
+    }
+
+    // Longest single async script call; kept below the driver's default 30s script timeout
+    private static final long MAX_CHUNK_MS = 10_000;
+
+    private static final String WAIT_SCRIPT = LocatorScripts.HELPERS +
+        "var using = arguments[0], value = arguments[1], condition = arguments[2], timeout = arguments[3];" +
+        "var done = arguments[arguments.length - 1];" +
+        "var match = function() {" +
+        "  var found; try { found = find(using, value); } catch (e) { return null; }" +
+        "  for (var i = 0; i < found.length; i++) {" +
+        "    var e = found[i];" +
+        "    if (condition === 'PRESENT' || (condition === 'VISIBLE' ? visible(e) : usable(e))) { return e; }" +
+        "  }" +
+        "  return null;" +
+        "};" +
+        "var first = match(); if (first) { done(first); return; }" +
+        "var finished = false, observer, timer, poll;" +
+        "var finish = function(result) {" +
+        "  if (finished) { return; } finished = true;" +
+        "  observer.disconnect(); clearTimeout(timer); clearInterval(poll); done(result);" +
+        "};" +
+        "var check = function() { var e = match(); if (e) { finish(e); } };" +
+        "observer = new MutationObserver(check);" +
+        "observer.observe(document.documentElement || document," +
+        "  { childList: true, subtree: true, attributes: true, characterData: true });" +
+        // CSS transitions can change visibility without touching the DOM
+        "poll = setInterval(check, 250);" +
+        "timer = setTimeout(function() { finish(null); }, timeout);";
+
+    private static final Map<String, StepStats> steps = new TreeMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ObserverWait::printStats, "observer-wait-stats"));
+    }
+
+    /**
+     * Per-step wait measurements
+     */
+    private static class StepStats {
+        long waits;
+        long totalNanos;
+        long maxNanos;
+        long roundTrips;
+        long fallbacks;
+    }
+
+    /**
+     * Wait until an element matching the locator satisfies the condition
+     */
+    public static WebElement until(WebDriver driver, By locator, Condition condition, Duration timeout) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        int roundTrips = 0;
+
+        if (locator instanceof By.Remotable && driver instanceof JavascriptExecutor) {
+            By.Remotable.Parameters params = ((By.Remotable) locator).getRemoteParameters();
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            try {
+                while (true) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) {
+                        record(condition, locator, start, roundTrips, false);
+                        throw new TimeoutException("Timed out after " + timeout.getSeconds()
+                            + " seconds waiting for " + condition.name().toLowerCase() + " of " + locator);
+                    }
+                    roundTrips++;
+                    Object result = js.executeAsyncScript(WAIT_SCRIPT, params.using(), params.value(),
+                        condition.name(), Math.min(remaining, MAX_CHUNK_MS));
+                    if (result instanceof WebElement) {
+                        record(condition, locator, start, roundTrips, false);
+                        return (WebElement) result;
+                    }
+                }
+            } catch (TimeoutException e) {
+                throw e;
+            } catch (WebDriverException e) {
+                // Script unavailable or interrupted by navigation; poll for the rest of the budget
+            }
+        }
+
+        long remainingNanos = Math.max(0, deadline - System.nanoTime());
+        try {
+            return new WebDriverWait(driver, Duration.ofNanos(remainingNanos)).until(expectation(locator, condition));
+        } finally {
+            record(condition, locator, start, roundTrips, true);
+        }
+    }
+
+    private static ExpectedCondition<WebElement> expectation(By locator, Condition condition) {
+        switch (condition) {
+            case PRESENT:
+                return ExpectedConditions.presenceOfElementLocated(locator);
+            case CLICKABLE:
+                return ExpectedConditions.elementToBeClickable(locator);
+            default:
+                return ExpectedConditions.visibilityOfElementLocated(locator);
+        }
+    }
+
+    private static synchronized void record(Condition condition, By locator, long start, int roundTrips,
+                                            boolean fallback) {
+        long elapsed = System.nanoTime() - start;
+        StepStats stats = steps.computeIfAbsent(condition.name().toLowerCase() + " " + locator, key -> new StepStats());
+        stats.waits++;
+        stats.totalNanos += elapsed;
+        stats.maxNanos = Math.max(stats.maxNanos, elapsed);
+        stats.roundTrips += roundTrips;
+        if (fallback) {
+            stats.fallbacks++;
+        }
+    }
+
+    private static synchronized void printStats() {
+        if (steps.isEmpty()) {
+            return;
+        }
+        System.out.println("Observer wait steps:");
+        for (Map.Entry<String, StepStats> entry : steps.entrySet()) {
+            StepStats stats = entry.getValue();
+            System.out.println(String.format("  %s: waits=%d avg=%dms max=%dms roundTrips=%d pollingFallbacks=%d",
+                entry.getKey(), stats.waits,
+                TimeUnit.NANOSECONDS.toMillis(stats.totalNanos / stats.waits),
+                TimeUnit.NANOSECONDS.toMillis(stats.maxNanos),
+                stats.roundTrips, stats.fallbacks));
+        }
+    }
+}
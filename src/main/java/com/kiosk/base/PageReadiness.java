@@ -0,0 +1,189 @@
+package com.kiosk.base;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Detects when a page has actually finished loading, including XHR-driven
+ * rendering and single-page-app navigation that document.readyState misses.
+ *
+ * On Chromium browsers it listens to DevTools network and lifecycle events;
+ * the events are used through raw CDP method names so no version-specific
+ * devtools package is needed. Browsers without DevTools fall back to readyState.
+ */
+public class PageReadiness {
+
+    /**
+     * What "ready" means for a wait
+     */
+    public enum Mode {
+        /** No network request in flight for the configured quiet period */
+        NETWORK_IDLE,
+        /** The current document has painted its first content */
+        FIRST_CONTENTFUL_PAINT,
+        /** document.readyState is "complete" */
+        READY_STATE
+    }
+
+    /**
+     * Parse a mode from configuration ("network-idle", "fcp", "ready-state")
+     */
+    public static Mode parseMode(String value) {
+        switch (value.trim().toLowerCase()) {
+            case "fcp":
+            case "first-contentful-paint":
+                return Mode.FIRST_CONTENTFUL_PAINT;
+            case "ready-state":
+            case "readystate":
+                return Mode.READY_STATE;
+            default:
+                return Mode.NETWORK_IDLE;
+        }
+    }
+
+    private static final Map<WebDriver, PageReadiness> trackers =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    private static final long CHECK_INTERVAL_MS = 20;
+
+    // Weak so the tracker map does not keep retired drivers alive
+    private final WeakReference<WebDriver> driver;
+    private final boolean devToolsAttached;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<String> lifecycle = ConcurrentHashMap.newKeySet();
+    private volatile long lastNetworkActivity = System.nanoTime();
+
+    private PageReadiness(WebDriver driver) {
+        this.driver = new WeakReference<>(driver);
+        this.devToolsAttached = attach(driver);
+    }
+
+    /**
+     * Get the readiness tracker for a driver, attaching DevTools listeners on first use
+     */
+    public static PageReadiness forDriver(WebDriver driver) {
+        synchronized (trackers) {
+            return trackers.computeIfAbsent(driver, PageReadiness::new);
+        }
+    }
+
+    /**
+     * Check whether network and lifecycle events are available for this driver
+     */
+    public boolean isEventDriven() {
+        return devToolsAttached;
+    }
+
+    /**
+     * Wait until the page is ready according to the mode.
+     * Without DevTools, every mode waits for document.readyState instead.
+     */
+    public void await(Mode mode, Duration quietPeriod, Duration timeout) {
+        if (!devToolsAttached || mode == Mode.READY_STATE) {
+            awaitReadyState(timeout);
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long quietNanos = quietPeriod.toNanos();
+        while (true) {
+            long now = System.nanoTime();
+            // Quiet time counts from the wait's start too, so a request about to be sent is not missed
+            long quietSince = Math.max(lastNetworkActivity, start);
+            boolean ready = mode == Mode.FIRST_CONTENTFUL_PAINT
+                ? lifecycle.contains("firstContentfulPaint")
+                : inFlight.isEmpty() && now - quietSince >= quietNanos;
+            if (ready) {
+                return;
+            }
+            if (now >= deadline) {
+                // Long-polling or streaming requests can keep a page "busy" forever; don't fail the flow
+                System.out.println("Page not " + mode + " after " + timeout.getSeconds() + " seconds ("
+                    + inFlight.size() + " requests in flight), continuing");
+                return;
+            }
+            try {
+                Thread.sleep(CHECK_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void awaitReadyState(Duration timeout) {
+        WebDriver webDriver = driver.get();
+        if (webDriver == null) {
+            return;
+        }
+        JavascriptExecutor js = (JavascriptExecutor) webDriver;
+        new WebDriverWait(webDriver, timeout)
+            .until(d -> "complete".equals(js.executeScript("return document.readyState")));
+    }
+
+    private boolean attach(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return false;
+        }
+        if (driver instanceof HasCapabilities
+                && "firefox".equalsIgnoreCase(((HasCapabilities) driver).getCapabilities().getBrowserName())) {
+            // Firefox's CDP support is partial and deprecated
+            return false;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+
+            devTools.addListener(event("Network.requestWillBeSent"), params -> {
+                inFlight.add(String.valueOf(params.get("requestId")));
+                lastNetworkActivity = System.nanoTime();
+            });
+            devTools.addListener(event("Network.loadingFinished"), this::requestDone);
+            devTools.addListener(event("Network.loadingFailed"), this::requestDone);
+            devTools.addListener(event("Page.lifecycleEvent"), params -> {
+                String name = String.valueOf(params.get("name"));
+                if ("init".equals(name)) {
+                    // A new document started loading; earlier paints no longer count
+                    lifecycle.clear();
+                    lastNetworkActivity = System.nanoTime();
+                }
+                lifecycle.add(name);
+            });
+
+            devTools.send(new Command<>("Network.enable", Collections.emptyMap()));
+            devTools.send(new Command<>("Page.enable", Collections.emptyMap()));
+            devTools.send(new Command<>("Page.setLifecycleEventsEnabled", Collections.singletonMap("enabled", true)));
+            return true;
+        } catch (Exception e) {
+            System.out.println("DevTools unavailable, using document.readyState: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void requestDone(Map<String, Object> params) {
+        inFlight.remove(String.valueOf(params.get("requestId")));
+        lastNetworkActivity = System.nanoTime();
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        Function<JsonInput, Map<String, Object>> mapper = input -> input.read(Json.MAP_TYPE);
+        return new Event<>(method, mapper);
+    }
+}
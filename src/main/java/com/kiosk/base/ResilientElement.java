@@ -0,0 +1,213 @@
+package com.kiosk.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * WebElement handle that finds its element on first use, keeps the found
+ * element, and finds it again when a call fails with StaleElementReferenceException
+ * (e.g. after the page re-rendered). Created by the accessor classes that
+ * LocatorProcessor generates for {@code @Locate} interfaces.
+ */
+public class ResilientElement implements WebElement, WrapsElement {
+
+    private static final int MAX_STALE_RETRIES = 2;
+
+    private static final AtomicLong lookups = new AtomicLong();
+    private static final AtomicLong staleRetries = new AtomicLong();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (lookups.get() > 0) {
+                System.out.println(String.format("Page elements: lookups=%d staleRetries=%d",
+                    lookups.get(), staleRetries.get()));
+            }
+        }, "resilient-element-stats"));
+    }
+
+    private final SearchContext context;
+    private final By locator;
+    private final String name;
+    private WebElement element;
+
+    public ResilientElement(SearchContext context, By locator, String name) {
+        this.context = context;
+        this.locator = locator;
+        this.name = name;
+    }
+
+    /**
+     * Get how many times an element was found again after going stale
+     */
+    public static long getStaleRetries() {
+        return staleRetries.get();
+    }
+
+    /**
+     * Get how many element lookups were made
+     */
+    public static long getLookups() {
+        return lookups.get();
+    }
+
+    /**
+     * Get the current underlying element, finding it if needed
+     */
+    @Override
+    public WebElement getWrappedElement() {
+        if (element == null) {
+            lookups.incrementAndGet();
+            element = context.findElement(locator);
+        }
+        return element;
+    }
+
+    private <T> T call(Function<WebElement, T> action) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return action.apply(getWrappedElement());
+            } catch (StaleElementReferenceException e) {
+                element = null;
+                if (attempt >= MAX_STALE_RETRIES) {
+                    throw e;
+                }
+                staleRetries.incrementAndGet();
+            }
+        }
+    }
+
+    private void run(Consumer<WebElement> action) {
+        call(element -> {
+            action.accept(element);
+            return null;
+        });
+    }
+
+    @Override
+    public void click() {
+        run(WebElement::click);
+    }
+
+    @Override
+    public void submit() {
+        run(WebElement::submit);
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        run(element -> element.sendKeys(keysToSend));
+    }
+
+    @Override
+    public void clear() {
+        run(WebElement::clear);
+    }
+
+    @Override
+    public String getTagName() {
+        return call(WebElement::getTagName);
+    }
+
+    @Override
+    public String getDomProperty(String propertyName) {
+        return call(element -> element.getDomProperty(propertyName));
+    }
+
+    @Override
+    public String getDomAttribute(String attributeName) {
+        return call(element -> element.getDomAttribute(attributeName));
+    }
+
+    @Override
+    public String getAttribute(String attributeName) {
+        return call(element -> element.getAttribute(attributeName));
+    }
+
+    @Override
+    public String getAriaRole() {
+        return call(WebElement::getAriaRole);
+    }
+
+    @Override
+    public String getAccessibleName() {
+        return call(WebElement::getAccessibleName);
+    }
+
+    @Override
+    public boolean isSelected() {
+        return call(WebElement::isSelected);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return call(WebElement::isEnabled);
+    }
+
+    @Override
+    public String getText() {
+        return call(WebElement::getText);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return call(element -> element.findElements(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return call(element -> element.findElement(by));
+    }
+
+    @Override
+    public SearchContext getShadowRoot() {
+        return call(WebElement::getShadowRoot);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return call(WebElement::isDisplayed);
+    }
+
+    @Override
+    public Point getLocation() {
+        return call(WebElement::getLocation);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return call(WebElement::getSize);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return call(WebElement::getRect);
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return call(element -> element.getCssValue(propertyName));
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) throws WebDriverException {
+        return call(element -> element.getScreenshotAs(target));
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + locator + ")";
+    }
+}
@@ -0,0 +1,97 @@
+package com.kiosk.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summary statistics for one benchmark metric: percentiles and a 95% confidence
+ * interval of the mean (Student's t, since iteration counts are small).
+ */
+public class BenchmarkStats {
+
+    // Two-sided 95% t critical values for 1..30 degrees of freedom
+    private static final double[] T_95 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    private final List<Double> sorted;
+    private final double mean;
+    private final double stdDev;
+
+    public BenchmarkStats(List<Double> samples) {
+        this.sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        double sum = 0;
+        for (double sample : sorted) {
+            sum += sample;
+        }
+        this.mean = sorted.isEmpty() ? 0 : sum / sorted.size();
+        double squares = 0;
+        for (double sample : sorted) {
+            squares += (sample - mean) * (sample - mean);
+        }
+        this.stdDev = sorted.size() < 2 ? 0 : Math.sqrt(squares / (sorted.size() - 1));
+    }
+
+    public int getCount() {
+        return sorted.size();
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStdDev() {
+        return stdDev;
+    }
+
+    /**
+     * Get a percentile (0-100) by nearest rank
+     */
+    public double percentile(double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(rank, sorted.size() - 1)));
+    }
+
+    /**
+     * Get the half-width of the 95% confidence interval of the mean
+     */
+    public double ci95HalfWidth() {
+        int n = sorted.size();
+        if (n < 2) {
+            return 0;
+        }
+        double t = n - 1 <= T_95.length ? T_95[n - 2] : 1.96;
+        return t * stdDev / Math.sqrt(n);
+    }
+
+    /**
+     * Render as a map for the JSON report
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("n", getCount());
+        map.put("mean", round(mean));
+        map.put("stdDev", round(stdDev));
+        map.put("p50", round(percentile(50)));
+        map.put("p90", round(percentile(90)));
+        map.put("p95", round(percentile(95)));
+        map.put("min", round(percentile(0)));
+        map.put("max", round(percentile(100)));
+        map.put("ci95Low", round(mean - ci95HalfWidth()));
+        map.put("ci95High", round(mean + ci95HalfWidth()));
+        return map;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
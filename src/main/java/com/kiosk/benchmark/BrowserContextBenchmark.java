@@ -0,0 +1,240 @@
+package com.kiosk.benchmark;
+
+import com.kiosk.pages.LoginPage;
+import com.kiosk.server.KioskStandInServer;
+import com.kiosk.utils.BrowserContextHost;
+import com.kiosk.utils.ConfigReader;
+import com.kiosk.utils.DriverManager;
+import com.kiosk.utils.WaitPolicy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Compares N concurrent kiosk sessions run as isolated browser contexts in one
+ * browser against N browser processes, one per session.
+ *
+ * For each session count (benchmark.contexts.sessions) and mode, N threads each
+ * open a session and log in to the local stand-in server through LoginPage.
+ * While all sessions are open, the proportional set size (PSS) of every process
+ * started by this JVM is summed from /proc, so shared pages are not counted
+ * twice. Reports setup and login times, login throughput and memory per session,
+ * and stops a mode at the first count where sessions fail to start (its
+ * concurrency limit on this host). Linux only for the memory figures.
+ *
+ * Run with: mvn -Pbenchmark compile exec:java -Dexec.mainClass=com.kiosk.benchmark.BrowserContextBenchmark
+ */
+public class BrowserContextBenchmark {
+
+    private static final String[] MODES = {"contexts", "processes"};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String browser = ConfigReader.getBrowser();
+        List<Integer> counts = new ArrayList<>();
+        for (String count : ConfigReader.getBenchmarkContextSessions().split(",")) {
+            if (!count.trim().isEmpty()) {
+                counts.add(Integer.parseInt(count.trim()));
+            }
+        }
+
+        KioskStandInServer server = KioskStandInServer.fromConfig();
+        server.start();
+        System.setProperty("kiosk.url", server.getLoginUrl());
+        Map<String, Object> report = new LinkedHashMap<>();
+        List<Map<String, Object>> results = new ArrayList<>();
+        report.put("browser", browser);
+        report.put("headless", ConfigReader.isHeadless());
+        try {
+            for (String mode : MODES) {
+                for (int sessions : counts) {
+                    Map<String, Object> result = runSessions(browser, mode, sessions, server.getLoginUrl());
+                    results.add(result);
+                    if (((Number) result.get("failures")).intValue() > 0) {
+                        System.out.println("  " + mode + ": sessions failed at " + sessions + ", stopping here");
+                        break;
+                    }
+                }
+            }
+        } finally {
+            server.stop();
+        }
+        report.put("results", results);
+
+        File output = new File(ConfigReader.getBenchmarkContextsOutputPath());
+        File parent = output.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (Writer writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(new Json().toJson(report));
+        }
+        System.out.println("Benchmark results written to " + output.getAbsolutePath());
+        System.exit(0);
+    }
+
+    private static Map<String, Object> runSessions(String browser, String mode, int sessions, String loginUrl)
+            throws InterruptedException {
+        System.out.println(String.format("== %s: %d sessions", mode, sessions));
+        WaitPolicy.beginRun();
+        ExecutorService executor = Executors.newFixedThreadPool(sessions);
+        List<Future<double[]>> futures = new ArrayList<>();
+        List<WebDriver> drivers = new ArrayList<>();
+        long start = System.nanoTime();
+        if ("contexts".equals(mode)) {
+            // Launch the shared browser up front so its start-up counts once, as setup
+            BrowserContextHost.forBrowser(browser);
+        }
+        for (int i = 0; i < sessions; i++) {
+            futures.add(executor.submit(() -> {
+                long opened = System.nanoTime();
+                WebDriver driver = "contexts".equals(mode)
+                    ? DriverManager.initializeContextDriver(browser)
+                    : DriverManager.initializeDriver(browser);
+                synchronized (drivers) {
+                    drivers.add(driver);
+                }
+                long ready = System.nanoTime();
+                driver.get(loginUrl);
+                LoginPage loginPage = new LoginPage(driver);
+                loginPage.waitForLoginForm();
+                loginPage.login(ConfigReader.getUsername(), ConfigReader.getPassword());
+                WaitPolicy.until(driver, d -> loginPage.isLoginFormGone(), Duration.ofSeconds(ConfigReader.getTimeout()));
+                return new double[] {millis(ready - opened), millis(System.nanoTime() - ready)};
+            }));
+        }
+
+        List<Double> setupMs = new ArrayList<>();
+        List<Double> loginMs = new ArrayList<>();
+        int failures = 0;
+        for (Future<double[]> future : futures) {
+            try {
+                double[] times = future.get();
+                setupMs.add(times[0]);
+                loginMs.add(times[1]);
+            } catch (Exception e) {
+                failures++;
+                System.out.println("  session failed: " + e.getCause());
+            }
+        }
+        double wallMs = millis(System.nanoTime() - start);
+        long pssKb = descendantPssKb();
+
+        for (WebDriver driver : drivers) {
+            try {
+                driver.quit();
+            } catch (Exception e) {
+                System.err.println("Error closing session: " + e.getMessage());
+            }
+        }
+        if ("contexts".equals(mode)) {
+            BrowserContextHost.shutdownAll();
+        }
+        executor.shutdownNow();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", mode);
+        result.put("sessions", sessions);
+        result.put("failures", failures);
+        result.put("wallMs", wallMs);
+        int succeeded = sessions - failures;
+        result.put("loginsPerSecond", wallMs == 0 ? 0 : succeeded * 1000.0 / wallMs);
+        result.put("totalPssMb", pssKb < 0 ? -1 : pssKb / 1024.0);
+        result.put("pssPerSessionMb", pssKb < 0 || succeeded == 0 ? -1 : pssKb / 1024.0 / succeeded);
+        result.put("setupMs", new BenchmarkStats(setupMs).toMap());
+        result.put("loginMs", new BenchmarkStats(loginMs).toMap());
+        System.out.println(String.format("  wall %.0fms, %.2f logins/s, memory %s",
+            wallMs, (double) result.get("loginsPerSecond"),
+            pssKb < 0 ? "n/a" : String.format("%.0f MB total, %.0f MB per session",
+                pssKb / 1024.0, (double) result.get("pssPerSessionMb"))));
+        return result;
+    }
+
+    /**
+     * Sum the PSS (RSS where smaps_rollup is unreadable) of every process descended
+     * from this JVM: driver services, browsers and their renderers. -1 without /proc.
+     */
+    static long descendantPssKb() {
+        Path proc = Paths.get("/proc");
+        if (!Files.isDirectory(proc)) {
+            return -1;
+        }
+        Map<Long, List<Long>> children = new HashMap<>();
+        try (Stream<Path> dirs = Files.list(proc)) {
+            for (Path dir : (Iterable<Path>) dirs::iterator) {
+                String name = dir.getFileName().toString();
+                if (!name.chars().allMatch(Character::isDigit)) {
+                    continue;
+                }
+                long parent = parentPid(dir);
+                if (parent > 0) {
+                    children.computeIfAbsent(parent, key -> new ArrayList<>()).add(Long.parseLong(name));
+                }
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+
+        long total = 0;
+        Set<Long> seen = new HashSet<>();
+        List<Long> pending = new ArrayList<>(children.getOrDefault(ProcessHandle.current().pid(), new ArrayList<>()));
+        while (!pending.isEmpty()) {
+            long pid = pending.remove(pending.size() - 1);
+            if (!seen.add(pid)) {
+                continue;
+            }
+            total += memoryKb(pid);
+            pending.addAll(children.getOrDefault(pid, new ArrayList<>()));
+        }
+        return total;
+    }
+
+    private static long parentPid(Path dir) {
+        try {
+            String stat = new String(Files.readAllBytes(dir.resolve("stat")), StandardCharsets.UTF_8);
+            // Fields after the parenthesised command name: state, ppid, ...
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            return Long.parseLong(fields[1]);
+        } catch (IOException | RuntimeException e) {
+            // Process exited while listing
+            return -1;
+        }
+    }
+
+    private static long memoryKb(long pid) {
+        for (String[] source : new String[][] {{"smaps_rollup", "Pss:"}, {"status", "VmRSS:"}}) {
+            try {
+                for (String line : Files.readAllLines(Paths.get("/proc", String.valueOf(pid), source[0]))) {
+                    if (line.startsWith(source[1])) {
+                        return Long.parseLong(line.substring(source[1].length()).trim().split("\\s+")[0]);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Not readable; try the next source
+            }
+        }
+        return 0;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,315 @@
+package com.kiosk.benchmark;
+
+import com.kiosk.server.KioskStandInServer;
+import com.kiosk.utils.ConfigReader;
+import org.openqa.selenium.BuildInfo;
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Macro-benchmark of the runner's login flow against the local stand-in server,
+ * for every combination of browser, display mode and login variant.
+ *
+ * Each iteration is a fresh JVM running LoginFlowTrial, so cold start includes
+ * driver service and browser launch exactly as a scheduled run sees them.
+ * "headless" runs the browser headless; "xvfb" runs it headed under xvfb-run.
+ * Cold-start, time-to-login-form, login and total times are reported with
+ * percentiles and 95% confidence intervals, written as JSON and compared
+ * against a stored baseline so a Selenium or browser upgrade that slows the
+ * flow is caught.
+ *
+ * Run with: mvn -Pbenchmark compile exec:java -Dbenchmark.iterations=20
+ */
+public class LoginFlowBenchmark {
+
+    private static final String[] METRICS = {"coldStartMs", "loginFormMs", "loginMs", "totalMs"};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int iterations = ConfigReader.getBenchmarkIterations();
+        int warmup = ConfigReader.getBenchmarkWarmup();
+        List<String> browsers = split(ConfigReader.getBenchmarkBrowsers());
+        List<String> modes = split(ConfigReader.getBenchmarkModes());
+        List<String> variants = split(ConfigReader.getBenchmarkVariants());
+
+        KioskStandInServer server = KioskStandInServer.fromConfig();
+        server.start();
+        Map<String, Object> report = new LinkedHashMap<>();
+        List<Map<String, Object>> results = new ArrayList<>();
+        try {
+            report.put("seleniumVersion", new BuildInfo().getReleaseLabel());
+            report.put("javaVersion", System.getProperty("java.version"));
+            report.put("iterations", iterations);
+            report.put("standInLatencyMs", ConfigReader.getStandInLatencyMillis());
+            report.put("standInJitterMs", ConfigReader.getStandInJitterMillis());
+            report.put("standInSlowXhrMs", ConfigReader.getStandInSlowXhrMillis());
+
+            for (String browser : browsers) {
+                for (String mode : modes) {
+                    if ("xvfb".equals(mode) && !onPath("xvfb-run")) {
+                        System.out.println("Skipping " + browser + "/xvfb: xvfb-run not found");
+                        continue;
+                    }
+                    for (String variant : variants) {
+                        results.add(runCombination(server, browser, mode, variant, warmup, iterations));
+                    }
+                }
+            }
+        } finally {
+            server.stop();
+        }
+        report.put("results", results);
+
+        File output = new File(ConfigReader.getBenchmarkOutputPath());
+        write(output, report);
+        System.out.println("Benchmark results written to " + output.getAbsolutePath());
+
+        boolean regressed = compareWithBaseline(results);
+        if (ConfigReader.isBenchmarkSaveBaseline()) {
+            File baseline = new File(ConfigReader.getBenchmarkBaselinePath());
+            write(baseline, report);
+            System.out.println("Baseline updated: " + baseline.getAbsolutePath());
+        }
+        System.exit(regressed ? 2 : 0);
+    }
+
+    private static Map<String, Object> runCombination(KioskStandInServer server, String browser, String mode,
+                                                      String variant, int warmup, int iterations)
+            throws IOException, InterruptedException {
+        System.out.println(String.format("== %s / %s / %s: %d warmup + %d iterations",
+            browser, mode, variant, warmup, iterations));
+        // Everything a run persists lives here, so trials never share state with
+        // scheduled runs or with other combinations
+        File stateDir = Files.createTempDirectory("kiosk-benchmark-state").toFile();
+        Map<String, List<Double>> samples = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            samples.put(metric, new ArrayList<>());
+        }
+        int failures = 0;
+
+        for (int i = 0; i < warmup + iterations; i++) {
+            Map<String, Double> trial = runTrial(server, browser, mode, variant, stateDir);
+            if (trial == null) {
+                failures++;
+                if (failures > iterations / 2) {
+                    System.out.println("  too many failures, giving up on this combination");
+                    break;
+                }
+                continue;
+            }
+            if (i < warmup) {
+                continue;
+            }
+            for (String metric : METRICS) {
+                samples.get(metric).add(trial.get(metric));
+            }
+            System.out.println(String.format("  #%d total=%.0fms", i - warmup + 1, trial.get("totalMs")));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("browser", browser);
+        result.put("mode", mode);
+        result.put("variant", variant);
+        result.put("failures", failures);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            BenchmarkStats stats = new BenchmarkStats(samples.get(metric));
+            metrics.put(metric, stats.toMap());
+            if (stats.getCount() > 0) {
+                System.out.println(String.format("  %-12s p50=%8.1f p95=%8.1f mean=%8.1f ±%.1f (95%% CI)",
+                    metric, stats.percentile(50), stats.percentile(95), stats.getMean(), stats.ci95HalfWidth()));
+            }
+        }
+        result.put("metrics", metrics);
+        return result;
+    }
+
+    /**
+     * Run one iteration in a child JVM; returns null if it failed
+     */
+    private static Map<String, Double> runTrial(KioskStandInServer server, String browser, String mode,
+                                                String variant, File stateDir)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        if ("xvfb".equals(mode)) {
+            command.addAll(Arrays.asList("xvfb-run", "-a", "-s", "-screen 0 1920x1080x24"));
+        }
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(childClasspath());
+        command.add("-Dbrowser=" + browser);
+        command.add("-Dheadless=" + "headless".equals(mode));
+        command.add("-Dkiosk.url=" + server.getLoginUrl());
+        command.add("-Dpool.enabled=false");
+        command.add("-Dsession.cache.dir=" + new File(stateDir, "sessions").getAbsolutePath());
+        command.add("-Dlocator.registry.path=" + new File(stateDir, "locators.properties").getAbsolutePath());
+        command.add("-Dadaptive.wait.history.path=" + new File(stateDir, "wait-history.properties").getAbsolutePath());
+        command.add("-Dbreaker.state.file=" + new File(stateDir, "kiosk-breaker.properties").getAbsolutePath());
+        command.add("-Dflow.checkpoint.dir=" + new File(stateDir, "flow-checkpoints").getAbsolutePath());
+        command.add("-Dbenchmark.variant=" + variant);
+        command.add(LoginFlowTrial.class.getName());
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        StringBuilder output = new StringBuilder();
+        Map<String, Double> result = null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append('\n');
+                if (line.startsWith(LoginFlowTrial.RESULT_PREFIX)) {
+                    result = parseResult(line);
+                }
+            }
+        }
+        if (!process.waitFor(ConfigReader.getBenchmarkTrialTimeoutSeconds(), TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            result = null;
+        }
+        if (result == null) {
+            System.out.println("  trial failed:\n" + tail(output.toString(), 15));
+        }
+        return result;
+    }
+
+    private static Map<String, Double> parseResult(String line) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (String field : line.substring(LoginFlowTrial.RESULT_PREFIX.length()).trim().split("\\s+")) {
+            String[] parts = field.split("=", 2);
+            result.put(parts[0], Double.parseDouble(parts[1]));
+        }
+        return result;
+    }
+
+    /**
+     * Compare medians with the baseline; a regression is a 95% CI lower bound above
+     * the baseline mean by more than the threshold
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean compareWithBaseline(List<Map<String, Object>> results) throws IOException {
+        File file = new File(ConfigReader.getBenchmarkBaselinePath());
+        if (!file.isFile()) {
+            System.out.println("No baseline at " + file.getPath() + " (run with -Dbenchmark.save.baseline=true to create one)");
+            return false;
+        }
+        Map<String, Object> baseline;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            baseline = new Json().toType(reader, Json.MAP_TYPE);
+        }
+        Map<String, Map<String, Object>> baselineResults = new LinkedHashMap<>();
+        for (Map<String, Object> result : (List<Map<String, Object>>) baseline.get("results")) {
+            baselineResults.put(key(result), (Map<String, Object>) result.get("metrics"));
+        }
+
+        double threshold = ConfigReader.getBenchmarkRegressionThreshold();
+        boolean regressed = false;
+        System.out.println("Comparison with baseline (selenium " + baseline.get("seleniumVersion") + "):");
+        for (Map<String, Object> result : results) {
+            Map<String, Object> before = baselineResults.get(key(result));
+            if (before == null) {
+                continue;
+            }
+            Map<String, Object> after = (Map<String, Object>) result.get("metrics");
+            for (String metric : METRICS) {
+                Map<String, Object> was = (Map<String, Object>) before.get(metric);
+                Map<String, Object> now = (Map<String, Object>) after.get(metric);
+                if (was == null || now == null || number(now.get("n")) == 0 || number(was.get("n")) == 0) {
+                    continue;
+                }
+                double baseMean = number(was.get("mean"));
+                String verdict = "ok";
+                if (number(now.get("ci95Low")) > baseMean * (1 + threshold)) {
+                    verdict = "REGRESSION";
+                    regressed = true;
+                } else if (number(now.get("ci95High")) < baseMean * (1 - threshold)) {
+                    verdict = "improved";
+                }
+                double delta = baseMean == 0 ? 0 : 100.0 * (number(now.get("mean")) - baseMean) / baseMean;
+                System.out.println(String.format("  %-32s %-12s p50 %8.1f -> %8.1f  mean %+6.1f%%  %s",
+                    key(result), metric, number(was.get("p50")), number(now.get("p50")), delta, verdict));
+            }
+        }
+        return regressed;
+    }
+
+    private static String key(Map<String, Object> result) {
+        return result.get("browser") + "/" + result.get("mode") + "/" + result.get("variant");
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static void write(File file, Map<String, Object> report) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(new Json().toJson(report));
+        }
+    }
+
+    /**
+     * Classpath for child JVMs. Under exec:java the project classes are only on the
+     * context class loader, not on java.class.path.
+     */
+    private static String childClasspath() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader instanceof URLClassLoader) {
+            List<String> entries = new ArrayList<>();
+            for (URL url : ((URLClassLoader) loader).getURLs()) {
+                try {
+                    entries.add(Paths.get(url.toURI()).toString());
+                } catch (URISyntaxException e) {
+                    entries.add(url.getPath());
+                }
+            }
+            if (!entries.isEmpty()) {
+                return String.join(File.pathSeparator, entries);
+            }
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    private static boolean onPath(String executable) {
+        for (String dir : System.getenv().getOrDefault("PATH", "").split(File.pathSeparator)) {
+            if (new File(dir, executable).canExecute()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> split(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim().toLowerCase());
+            }
+        }
+        return items;
+    }
+
+    private static String tail(String text, int lines) {
+        String[] all = text.split("\n");
+        return String.join("\n", Arrays.asList(all).subList(Math.max(0, all.length - lines), all.length));
+    }
+}
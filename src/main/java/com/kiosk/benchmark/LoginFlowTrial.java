@@ -0,0 +1,67 @@
+package com.kiosk.benchmark;
+
+import com.kiosk.pages.LoginPage;
+import com.kiosk.utils.ConfigReader;
+import com.kiosk.utils.DriverManager;
+import com.kiosk.utils.WaitPolicy;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+/**
+ * One iteration of the runner's login flow, run in its own JVM by
+ * LoginFlowBenchmark so every iteration starts cold. Browser, headless mode and
+ * kiosk.url come from -D overrides; benchmark.variant picks the login path:
+ * "ui" (login form), "cached-session" (SessionStateCache) or "http" (protocol login).
+ *
+ * Prints one line: BENCHMARK_RESULT coldStartMs=.. loginFormMs=.. loginMs=.. totalMs=..
+ */
+public class LoginFlowTrial {
+
+    static final String RESULT_PREFIX = "BENCHMARK_RESULT";
+
+    public static void main(String[] args) {
+        String variant = System.getProperty("benchmark.variant", "ui");
+        String kioskUrl = ConfigReader.getKioskUrl();
+        String username = ConfigReader.getUsername();
+        String password = ConfigReader.getPassword();
+        WaitPolicy.beginRun();
+
+        long start = System.nanoTime();
+        WebDriver driver = DriverManager.initializeDriver(ConfigReader.getBrowser());
+        try {
+            long launched = System.nanoTime();
+
+            driver.get(kioskUrl);
+            LoginPage loginPage = new LoginPage(driver);
+            if (!"cached-session".equals(variant)) {
+                loginPage.waitForLoginForm();
+            }
+            long formShown = System.nanoTime();
+
+            switch (variant) {
+                case "cached-session":
+                    loginPage.loginWithCachedSession(kioskUrl, username, password);
+                    break;
+                case "http":
+                    loginPage.loginViaHttp(kioskUrl, username, password);
+                    break;
+                default:
+                    loginPage.login(username, password);
+            }
+            WaitPolicy.until(driver, d -> loginPage.isLoginFormGone(), Duration.ofSeconds(ConfigReader.getTimeout()));
+            long loggedIn = System.nanoTime();
+
+            System.out.println(String.format("%s coldStartMs=%.1f loginFormMs=%.1f loginMs=%.1f totalMs=%.1f",
+                RESULT_PREFIX, millis(launched - start), millis(formShown - launched),
+                millis(loggedIn - formShown), millis(loggedIn - start)));
+        } finally {
+            DriverManager.quitDriver();
+        }
+        System.exit(0);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,358 @@
+package com.kiosk.daemon;
+
+import com.kiosk.KioskAutomationRunner;
+import com.kiosk.utils.ConfigReader;
+import com.kiosk.utils.DriverManager;
+import com.kiosk.utils.DriverPool;
+import com.kiosk.utils.KioskCircuitBreaker;
+import com.kiosk.utils.Tracer;
+import com.kiosk.utils.WaitPolicy;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resident mode of KioskAutomationRunner: one JVM that runs the kiosk flow on a
+ * cron schedule (daemon.schedule) instead of a new Maven, JVM and browser for
+ * every scheduled run.
+ *
+ * Runs execute one at a time on a single scheduler thread and the next run is
+ * only scheduled once the current one has finished, so runs never overlap; slots
+ * that pass while a run is still going are skipped and counted. With
+ * daemon.keep.browser the session comes from DriverPool, which keeps the browser
+ * warm between runs and clears its cookies and storage after each one; a session
+ * whose run failed is quit and replaced. Each run starts with a health probe of
+ * the kiosk through its KioskCircuitBreaker; while the kiosk is down, runs are
+ * recorded as KIOSK_DOWN without touching the browser. After every run the status (last run,
+ * next run, counters) is written to daemon.status.file and, with
+ * daemon.http.port set, served as JSON on http://127.0.0.1:&lt;port&gt;/status.
+ *
+ * Start with: mvn compile exec:java -Dexec.mainClass=com.kiosk.KioskAutomationRunner -Dexec.args=--daemon
+ */
+public class KioskDaemon {
+
+    private final CronSchedule schedule;
+    private final String browser;
+    private final boolean keepBrowser;
+    private final boolean runOnStart;
+    private final File statusFile;
+    private final int httpPort;
+    private final KioskCircuitBreaker breaker;
+    private final ScheduledExecutorService scheduler;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final Instant startedAt = Instant.now();
+    private HttpServer server;
+
+    // Status, guarded by this
+    private String state = "starting";
+    private boolean stopping;
+    private ZonedDateTime nextRun;
+    private Map<String, Object> lastRun;
+    private String lastSuccessAt;
+    private long runs;
+    private long failures;
+    private long skippedSlots;
+    private long kioskDownRuns;
+
+    KioskDaemon(CronSchedule schedule, String browser, boolean keepBrowser, boolean runOnStart,
+                File statusFile, int httpPort) {
+        this.schedule = schedule;
+        this.browser = browser;
+        this.keepBrowser = keepBrowser;
+        this.runOnStart = runOnStart;
+        this.statusFile = statusFile;
+        this.httpPort = httpPort;
+        this.breaker = ConfigReader.isBreakerEnabled() ? KioskCircuitBreaker.forKiosk(ConfigReader.getKioskUrl()) : null;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kiosk-daemon");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Create a daemon from the daemon.* settings
+     */
+    public static KioskDaemon fromConfig() {
+        CronSchedule schedule = CronSchedule.parse(ConfigReader.getDaemonSchedule());
+        boolean keepBrowser = ConfigReader.isDaemonKeepBrowser();
+        if (keepBrowser) {
+            System.setProperty("pool.enabled", "true");
+            // The warm session must outlive the gap between two runs
+            ZonedDateTime first = schedule.next(ZonedDateTime.now());
+            long gapSeconds = Duration.between(first, schedule.next(first)).getSeconds();
+            if (ConfigReader.getPoolIdleTimeout() < 2 * gapSeconds) {
+                System.setProperty("pool.idle.timeout", String.valueOf(2 * gapSeconds));
+            }
+        }
+        return new KioskDaemon(schedule, ConfigReader.getBrowser(), keepBrowser, ConfigReader.isDaemonRunOnStart(),
+            new File(ConfigReader.getDaemonStatusFile()), ConfigReader.getDaemonHttpPort());
+    }
+
+    /**
+     * Start the daemon and block until the JVM is asked to shut down
+     */
+    public void run() {
+        System.out.println("========================================");
+        System.out.println("Kiosk Automation Daemon");
+        System.out.println("========================================");
+        System.out.println("Started at: " + java.time.LocalDateTime.now());
+        System.out.println("  Schedule: " + schedule.getExpression());
+        System.out.println("  Browser: " + browser + (keepBrowser ? " (kept warm between runs)" : ""));
+        System.out.println("  Status file: " + statusFile.getAbsolutePath());
+        System.out.println();
+        try {
+            start();
+            stopped.await();
+        } catch (IOException e) {
+            System.err.println("Could not start the daemon: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Open the status endpoint and schedule the first run
+     */
+    public void start() throws IOException {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "kiosk-daemon-stop"));
+        if (httpPort > 0) {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), httpPort), 0);
+            server.createContext("/status", this::serveStatus);
+            server.start();
+            System.out.println("Daemon status on http://" + server.getAddress().getAddress().getHostAddress()
+                + ":" + server.getAddress().getPort() + "/status");
+        }
+        if (keepBrowser) {
+            // Launch the browser now so the first run finds it warm
+            scheduler.execute(() -> {
+                try {
+                    DriverPool.forBrowser(browser);
+                } catch (Exception e) {
+                    System.err.println("Could not pre-warm " + browser + ": " + e.getMessage());
+                }
+            });
+        }
+        if (runOnStart) {
+            scheduler.execute(() -> fire(null));
+        } else {
+            scheduleNext(ZonedDateTime.now());
+        }
+    }
+
+    /**
+     * Stop scheduling, interrupt a run in progress and write the final status
+     */
+    public void stop() {
+        long completed;
+        synchronized (this) {
+            if (stopping) {
+                return;
+            }
+            stopping = true;
+            state = "stopped";
+            nextRun = null;
+            completed = runs;
+            scheduler.shutdownNow();
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+        writeStatus();
+        stopped.countDown();
+        System.out.println("Daemon stopped after " + completed + " runs");
+    }
+
+    private void scheduleNext(ZonedDateTime after) {
+        ZonedDateTime next = schedule.next(after);
+        synchronized (this) {
+            if (stopping) {
+                return;
+            }
+            nextRun = next;
+            state = "idle";
+            long delay = Math.max(0, Duration.between(ZonedDateTime.now(), next).toMillis());
+            scheduler.schedule(() -> fire(next), delay, TimeUnit.MILLISECONDS);
+        }
+        writeStatus();
+        System.out.println("Next run at " + next);
+    }
+
+    /**
+     * Run the flow for a slot (null for the start-up run), then schedule the next slot
+     */
+    private void fire(ZonedDateTime slot) {
+        try {
+            runOnce();
+        } catch (Throwable t) {
+            // The next run must still be scheduled
+            System.err.println("Daemon run crashed: " + t);
+        } finally {
+            ZonedDateTime now = ZonedDateTime.now();
+            if (slot != null) {
+                int skipped = 0;
+                for (ZonedDateTime missed = schedule.next(slot); !missed.isAfter(now); missed = schedule.next(missed)) {
+                    skipped++;
+                }
+                if (skipped > 0) {
+                    System.out.println("Run overran " + skipped + " scheduled slot(s); skipping them");
+                    synchronized (this) {
+                        skippedSlots += skipped;
+                    }
+                }
+            }
+            scheduleNext(now);
+        }
+    }
+
+    private void runOnce() {
+        synchronized (this) {
+            if (stopping) {
+                return;
+            }
+            state = "running";
+            nextRun = null;
+        }
+        writeStatus();
+        Instant runStartedAt = Instant.now();
+        long start = System.nanoTime();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("startedAt", runStartedAt.toString());
+        if (breaker != null && !(breaker.allowRun()
+                && breaker.preflight(ConfigReader.getKioskUrl(), ConfigReader.getProbeTimeoutMillis()))) {
+            // Kiosk down: no browser work until the breaker lets a probe through and it succeeds
+            result.put("status", "KIOSK_DOWN");
+            result.put("error", breaker.describe());
+            result.put("finishedAt", Instant.now().toString());
+            result.put("durationMs", millis(System.nanoTime() - start));
+            synchronized (this) {
+                runs++;
+                kioskDownRuns++;
+                lastRun = result;
+            }
+            System.out.println("Run " + runs + " skipped: kiosk " + breaker.describe());
+            return;
+        }
+        WaitPolicy.beginRun();
+        WebDriver driver = null;
+        boolean healthy = false;
+        try (Tracer.Span span = Tracer.span("daemon.run")) {
+            driver = keepBrowser ? DriverManager.borrowDriver(browser) : DriverManager.initializeDriver(browser);
+            result.put("sessionMs", millis(System.nanoTime() - start));
+            result.put("finalUrl", KioskAutomationRunner.runFlow(driver));
+            healthy = true;
+        } catch (Exception e) {
+            System.err.println("Scheduled run failed: " + e.getMessage());
+            result.put("error", String.valueOf(e.getMessage()));
+            // The flow may have replaced a crashed browser
+            KioskAutomationRunner.saveErrorScreenshot(DriverManager.getDriver());
+        } finally {
+            if (driver != null) {
+                if (healthy && keepBrowser) {
+                    DriverManager.releaseDriver();
+                } else {
+                    DriverManager.quitDriver();
+                }
+            }
+        }
+        double durationMs = millis(System.nanoTime() - start);
+        result.put("finishedAt", Instant.now().toString());
+        result.put("durationMs", durationMs);
+        result.put("status", healthy ? "OK" : "FAILED");
+        synchronized (this) {
+            runs++;
+            if (healthy) {
+                lastSuccessAt = runStartedAt.toString();
+            } else {
+                failures++;
+            }
+            lastRun = result;
+        }
+        System.out.println(String.format("Run %d %s in %.0fms", runs, healthy ? "succeeded" : "failed", durationMs));
+    }
+
+    private synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("pid", ProcessHandle.current().pid());
+        status.put("startedAt", startedAt.toString());
+        status.put("schedule", schedule.getExpression());
+        status.put("browser", browser);
+        status.put("keepBrowser", keepBrowser);
+        status.put("nextRun", nextRun == null ? null : nextRun.toString());
+        status.put("runs", runs);
+        status.put("failures", failures);
+        status.put("skippedSlots", skippedSlots);
+        status.put("kioskDownRuns", kioskDownRuns);
+        status.put("breaker", breaker == null ? null : breaker.getState().name());
+        status.put("lastSuccessAt", lastSuccessAt);
+        status.put("lastRun", lastRun);
+        status.put("updatedAt", Instant.now().toString());
+        return status;
+    }
+
+    /**
+     * Replace the status file in one step, so readers never see a partial file
+     */
+    private void writeStatus() {
+        String json = new Json().toJson(getStatus());
+        try {
+            File parent = statusFile.getAbsoluteFile().getParentFile();
+            parent.mkdirs();
+            Path target = statusFile.toPath();
+            Path temp = Files.createTempFile(parent.toPath(), "status", ".tmp");
+            Files.write(temp, json.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write daemon status: " + e.getMessage());
+        }
+    }
+
+    private void serveStatus(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] bytes = new Json().toJson(getStatus()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Cache-Control", "no-store");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.kiosk.fleet;
+
+import com.kiosk.utils.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Turns a credential reference from the targets file into the password, so the
+ * file itself holds no secrets:
+ * <ul>
+ *   <li>env:NAME - environment variable NAME</li>
+ *   <li>prop:key - config.properties key or -Dkey system property</li>
+ *   <li>file:/path - contents of a file (trailing newline removed)</li>
+ * </ul>
+ */
+public class CredentialResolver {
+
+    /**
+     * Resolve a reference; error messages never contain the value
+     */
+    public static String resolve(String reference) {
+        String value;
+        if (reference.startsWith("env:")) {
+            value = System.getenv(reference.substring(4));
+        } else if (reference.startsWith("prop:")) {
+            value = ConfigReader.getProperty(reference.substring(5));
+        } else if (reference.startsWith("file:")) {
+            try {
+                value = new String(Files.readAllBytes(Paths.get(reference.substring(5))), StandardCharsets.UTF_8)
+                    .replaceAll("[\\r\\n]+$", "");
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read credential " + reference + ": " + e.getMessage());
+            }
+        } else {
+            // Not echoed: a malformed reference may be a password pasted in by mistake
+            throw new IllegalArgumentException("Unsupported credential reference (use env:, prop: or file:)");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Credential " + reference + " is not set");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,258 @@
+package com.kiosk.fleet;
+
+import com.kiosk.benchmark.BenchmarkStats;
+import com.kiosk.pages.LoginPage;
+import com.kiosk.utils.ConfigReader;
+import com.kiosk.utils.DriverManager;
+import com.kiosk.utils.Tracer;
+import com.kiosk.utils.WaitPolicy;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login health check of a whole kiosk fleet: runs the login flow against every
+ * target in fleet.targets.file with at most fleet.concurrency browser sessions at
+ * a time, each target bounded by fleet.target.timeout.seconds.
+ *
+ * Targets are scheduled on a work-stealing pool; a semaphore bounds the browser
+ * sessions. Sessions come from DriverPool (fleet.session.mode=pool), so browsers
+ * are reused between targets, or are browser contexts in one shared browser
+ * (fleet.session.mode=context). When a target's deadline passes its session is
+ * quit, which aborts whatever command it is blocked in, and the target is
+ * reported as TIMEOUT. All results, plus the sweep time, go to one JSON file.
+ * Exits with 1 when any target did not log in.
+ *
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.kiosk.fleet.FleetRunner -Dfleet.targets.file=kiosks.csv
+ */
+public class FleetRunner {
+
+    /**
+     * Outcome of one target
+     */
+    public enum Status {
+        OK, LOGIN_FAILED, TIMEOUT, ERROR
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<FleetTarget> targets = FleetTarget.load(Paths.get(ConfigReader.getFleetTargetsFile()));
+        int concurrency = Math.max(1, ConfigReader.getFleetConcurrency());
+        long timeoutMillis = TimeUnit.SECONDS.toMillis(ConfigReader.getFleetTargetTimeoutSeconds());
+        String sessionMode = ConfigReader.getFleetSessionMode();
+        String browser = ConfigReader.getBrowser();
+        if (ConfigReader.getPoolSize() < concurrency) {
+            System.setProperty("pool.size", String.valueOf(concurrency));
+        }
+        System.out.println(String.format("Fleet sweep: %d targets, %d concurrent %s sessions, %ds per target",
+            targets.size(), concurrency, sessionMode, timeoutMillis / 1000));
+
+        FleetRunner runner = new FleetRunner(browser, sessionMode, concurrency, timeoutMillis);
+        Map<String, Object> report = runner.sweep(targets);
+
+        File output = new File(ConfigReader.getFleetOutputPath());
+        File parent = output.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (Writer writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(new Json().toJson(report));
+        }
+        System.out.println("Fleet results written to " + output.getAbsolutePath());
+        System.exit(((Number) report.get("ok")).intValue() == targets.size() ? 0 : 1);
+    }
+
+    private final String browser;
+    private final String sessionMode;
+    private final int concurrency;
+    private final long timeoutMillis;
+    private final Semaphore sessions;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService deadlines;
+
+    FleetRunner(String browser, String sessionMode, int concurrency, long timeoutMillis) {
+        this.browser = browser;
+        this.sessionMode = sessionMode;
+        this.concurrency = concurrency;
+        this.timeoutMillis = timeoutMillis;
+        this.sessions = new Semaphore(concurrency, true);
+        // Java 11 has no virtual threads; targets block on their browser, so
+        // parallelism matches the session bound
+        this.workers = Executors.newWorkStealingPool(concurrency);
+        this.deadlines = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fleet-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Check every target and return the aggregated report
+     */
+    Map<String, Object> sweep(List<FleetTarget> targets) {
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+        for (FleetTarget target : targets) {
+            futures.add(CompletableFuture.supplyAsync(() -> check(target, start), workers));
+        }
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (CompletableFuture<Map<String, Object>> future : futures) {
+            results.add(future.join());
+        }
+        double sweepMs = millis(System.nanoTime() - start);
+        workers.shutdown();
+        deadlines.shutdownNow();
+
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            counts.put(status, 0);
+        }
+        List<Double> durations = new ArrayList<>();
+        for (Map<String, Object> result : results) {
+            counts.merge(Status.valueOf((String) result.get("status")), 1, Integer::sum);
+            durations.add((Double) result.get("durationMs"));
+        }
+        BenchmarkStats stats = new BenchmarkStats(durations);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("sweepMs", sweepMs);
+        report.put("targets", targets.size());
+        report.put("ok", counts.get(Status.OK));
+        report.put("statusCounts", counts);
+        report.put("concurrency", concurrency);
+        report.put("sessionMode", sessionMode);
+        report.put("browser", browser);
+        report.put("targetTimeoutMs", timeoutMillis);
+        report.put("durationMs", stats.toMap());
+        report.put("results", results);
+        System.out.println(String.format("Fleet sweep: %d targets in %.1fs (ok %d, login failed %d, timeout %d, "
+                + "error %d); per target p50 %.0fms, p95 %.0fms",
+            targets.size(), sweepMs / 1000.0, counts.get(Status.OK), counts.get(Status.LOGIN_FAILED),
+            counts.get(Status.TIMEOUT), counts.get(Status.ERROR),
+            stats.getCount() == 0 ? 0 : stats.percentile(50), stats.getCount() == 0 ? 0 : stats.percentile(95)));
+        return report;
+    }
+
+    /**
+     * A target's session, shared with the deadline task that may quit it
+     */
+    private static final class Attempt {
+        private WebDriver driver;
+        private boolean expired;
+
+        synchronized void bind(WebDriver webDriver) {
+            driver = webDriver;
+            if (expired) {
+                quit();
+            }
+        }
+
+        synchronized void expire() {
+            expired = true;
+            quit();
+        }
+
+        synchronized boolean isExpired() {
+            return expired;
+        }
+
+        private void quit() {
+            if (driver != null) {
+                try {
+                    driver.quit();
+                } catch (Exception e) {
+                    // Already gone
+                }
+            }
+        }
+    }
+
+    private Map<String, Object> check(FleetTarget target, long sweepStart) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", target.getName());
+        result.put("url", target.getUrl());
+        result.put("username", target.getUsername());
+
+        sessions.acquireUninterruptibly();
+        long start = System.nanoTime();
+        result.put("queuedMs", millis(start - sweepStart));
+        Attempt attempt = new Attempt();
+        ScheduledFuture<?> deadline = deadlines.schedule(attempt::expire, timeoutMillis, TimeUnit.MILLISECONDS);
+        Status status;
+        boolean sessionHealthy = false;
+        try (Tracer.Span span = Tracer.span("fleet.target")) {
+            String password = CredentialResolver.resolve(target.getCredentialRef());
+            WebDriver driver = "context".equalsIgnoreCase(sessionMode)
+                ? DriverManager.initializeContextDriver(browser)
+                : DriverManager.borrowDriver(browser);
+            attempt.bind(driver);
+            long sessionReady = System.nanoTime();
+            result.put("sessionMs", millis(sessionReady - start));
+
+            driver.get(target.getUrl());
+            LoginPage loginPage = new LoginPage(driver);
+            loginPage.waitForLoginForm();
+            long formShown = System.nanoTime();
+            result.put("loginFormMs", millis(formShown - sessionReady));
+
+            loginPage.login(target.getUsername(), password);
+            try {
+                WaitPolicy.until(driver, d -> loginPage.isLoginFormGone(), remaining(start));
+                status = Status.OK;
+            } catch (TimeoutException e) {
+                status = attempt.isExpired() ? Status.TIMEOUT : Status.LOGIN_FAILED;
+                result.put("error", "Login form still shown after login");
+            }
+            result.put("loginMs", millis(System.nanoTime() - formShown));
+            result.put("finalUrl", driver.getCurrentUrl());
+            sessionHealthy = !attempt.isExpired();
+        } catch (Exception e) {
+            status = attempt.isExpired() ? Status.TIMEOUT : Status.ERROR;
+            result.put("error", attempt.isExpired() ? "Deadline of " + timeoutMillis + "ms passed" : e.getMessage());
+        } finally {
+            deadline.cancel(false);
+            if (sessionHealthy) {
+                DriverManager.releaseDriver();
+            } else {
+                DriverManager.quitDriver();
+            }
+            sessions.release();
+        }
+        double durationMs = millis(System.nanoTime() - start);
+        result.put("status", status.name());
+        result.put("durationMs", durationMs);
+        System.out.println(String.format("  %-40s %-12s %6.0fms", target.getName(), status, durationMs));
+        return result;
+    }
+
+    private Duration remaining(long start) {
+        long left = timeoutMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return Duration.ofMillis(Math.max(0, left));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
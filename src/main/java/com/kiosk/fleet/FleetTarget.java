@@ -0,0 +1,70 @@
+package com.kiosk.fleet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One kiosk endpoint to check: URL, user and a reference to the password
+ * (see CredentialResolver), never the password itself.
+ */
+public class FleetTarget {
+
+    private final String name;
+    private final String url;
+    private final String username;
+    private final String credentialRef;
+
+    public FleetTarget(String name, String url, String username, String credentialRef) {
+        this.name = name;
+        this.url = url;
+        this.username = username;
+        this.credentialRef = credentialRef;
+    }
+
+    /**
+     * Read targets from a file with one "url,username,credentialRef[,name]" per line;
+     * blank lines and lines starting with # are skipped
+     */
+    public static List<FleetTarget> load(Path file) throws IOException {
+        List<FleetTarget> targets = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] fields = trimmed.split(",", -1);
+            if (fields.length < 3 || fields.length > 4) {
+                throw new IllegalArgumentException(file + ":" + lineNumber
+                    + ": expected url,username,credentialRef[,name]");
+            }
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = fields[i].trim();
+            }
+            String name = fields.length == 4 && !fields[3].isEmpty() ? fields[3] : fields[0];
+            targets.add(new FleetTarget(name, fields[0], fields[1], fields[2]));
+        }
+        return targets;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getCredentialRef() {
+        return credentialRef;
+    }
+}
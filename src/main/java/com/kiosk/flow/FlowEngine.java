@@ -0,0 +1,349 @@
+package com.kiosk.flow;
+
+import com.kiosk.utils.ConfigReader;
+import com.kiosk.utils.DriverManager;
+import com.kiosk.utils.SessionStateCache;
+import com.kiosk.utils.Tracer;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs a flow as a list of named steps and checkpoints the browser state
+ * (URL, cookies, local and session storage) after each one.
+ *
+ * When a step fails with a WebDriverException (a crashed browser, a dead
+ * session, a timeout), directly or as the cause of a wrapping exception, the
+ * engine recovers instead of giving up: a dead session
+ * is quit and replaced with a new driver, the last checkpoint is restored and
+ * the flow resumes with the failed step. A step that fails again right after a
+ * restore without any progress steps back one more checkpoint, so a snapshot
+ * the server no longer accepts is not retried forever. At most flow.retry.budget
+ * recoveries are made per run. Time spent recovering is reported apart from
+ * step time.
+ *
+ * The last checkpoint is also written to flow.checkpoint.dir, so a run started
+ * again after a crash of the JVM (e.g. a scheduled-task restart) resumes from it
+ * if it is younger than flow.checkpoint.max.age.seconds. It is deleted when the
+ * flow completes. Checkpoints hold live session cookies, so the file is
+ * readable by the current user only.
+ */
+public class FlowEngine {
+
+    private static final Json JSON = new Json();
+
+    /**
+     * A declared step of the flow
+     */
+    private static final class Step {
+        final String name;
+        final Consumer<WebDriver> action;
+
+        Step(String name, Consumer<WebDriver> action) {
+            this.name = name;
+            this.action = action;
+        }
+    }
+
+    /**
+     * Browser state after a number of completed steps
+     */
+    private static final class Checkpoint {
+        final int completed;
+        final Map<String, Object> state;
+
+        Checkpoint(int completed, Map<String, Object> state) {
+            this.completed = completed;
+            this.state = state;
+        }
+    }
+
+    private final String name;
+    private final Supplier<WebDriver> driverFactory;
+    private final List<Step> steps = new ArrayList<>();
+    private final Path checkpointFile;
+    private WebDriver driver;
+    private Map<String, Object> report;
+
+    /**
+     * Create a flow whose replacement drivers come from driverFactory
+     */
+    public FlowEngine(String name, Supplier<WebDriver> driverFactory) {
+        this.name = name;
+        this.driverFactory = driverFactory;
+        this.checkpointFile = Paths.get(ConfigReader.getFlowCheckpointDir(),
+            name.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + Integer.toHexString(name.hashCode()) + ".json");
+    }
+
+    /**
+     * Add a step; steps run in the order they are added
+     */
+    public FlowEngine step(String stepName, Consumer<WebDriver> action) {
+        steps.add(new Step(stepName, action));
+        return this;
+    }
+
+    /**
+     * Run every step on the given driver, recovering from browser failures.
+     * Returns the report; the driver in use at the end is getDriver().
+     */
+    public Map<String, Object> run(WebDriver initialDriver) {
+        driver = initialDriver;
+        int budget = ConfigReader.getFlowRetryBudget();
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        checkpoints.add(new Checkpoint(0, null));
+        List<Map<String, Object>> stepReports = new ArrayList<>();
+        List<Map<String, Object>> recoveries = new ArrayList<>();
+        for (Step step : steps) {
+            Map<String, Object> stepReport = new LinkedHashMap<>();
+            stepReport.put("name", step.name);
+            stepReport.put("attempts", 0);
+            stepReport.put("stepMs", 0.0);
+            stepReports.add(stepReport);
+        }
+        report = new LinkedHashMap<>();
+        report.put("flow", name);
+        report.put("steps", stepReports);
+        report.put("recoveries", recoveries);
+
+        boolean justRestored = false;
+        Checkpoint persisted = loadCheckpoint();
+        if (persisted != null) {
+            try {
+                restore(persisted);
+                checkpoints.add(persisted);
+                justRestored = true;
+                report.put("resumedAfter", steps.get(persisted.completed - 1).name);
+                System.out.println("Resuming flow " + name + " after step '"
+                    + steps.get(persisted.completed - 1).name + "' from a saved checkpoint");
+            } catch (WebDriverException e) {
+                System.err.println("Could not restore saved checkpoint, starting over: " + e.getMessage());
+            }
+        }
+
+        int next = checkpoints.get(checkpoints.size() - 1).completed;
+        while (next < steps.size()) {
+            Step step = steps.get(next);
+            Map<String, Object> stepReport = stepReports.get(next);
+            long start = System.nanoTime();
+            stepReport.put("attempts", (Integer) stepReport.get("attempts") + 1);
+            try (Tracer.Span span = Tracer.span("flow." + step.name)) {
+                step.action.accept(driver);
+                Checkpoint checkpoint = new Checkpoint(next + 1, SessionStateCache.capture(driver));
+                addStepTime(stepReport, start);
+                checkpoints.add(checkpoint);
+                saveCheckpoint(checkpoint);
+                next++;
+                justRestored = false;
+            } catch (RuntimeException e) {
+                // Recovery is timed on its own, not as part of the step
+                addStepTime(stepReport, start);
+                WebDriverException browserFailure = browserFailure(e);
+                if (browserFailure == null) {
+                    throw e;
+                }
+                if (recoveries.size() >= budget) {
+                    System.err.println("Flow " + name + " failed at step '" + step.name + "' with its retry budget of "
+                        + budget + " spent");
+                    throw e;
+                }
+                if (justRestored && checkpoints.size() > 1) {
+                    // No progress since the last restore: that checkpoint may be the problem
+                    checkpoints.remove(checkpoints.size() - 1);
+                }
+                Checkpoint checkpoint = checkpoints.get(checkpoints.size() - 1);
+                recoveries.add(recover(step.name, browserFailure, checkpoint));
+                next = checkpoint.completed;
+                justRestored = true;
+            }
+        }
+        deleteCheckpoint();
+
+        double stepMs = 0;
+        for (Map<String, Object> stepReport : stepReports) {
+            stepMs += (Double) stepReport.get("stepMs");
+        }
+        double recoveryMs = 0;
+        for (Map<String, Object> recovery : recoveries) {
+            recoveryMs += (Double) recovery.get("recoveryMs");
+        }
+        report.put("stepMs", stepMs);
+        report.put("recoveryMs", recoveryMs);
+        System.out.println(String.format("Flow %s: %d steps in %.0fms, %d recoveries in %.0fms", name, steps.size(),
+            stepMs, recoveries.size(), recoveryMs));
+        return report;
+    }
+
+    /**
+     * Get the driver in use, which is a new one after a recovery
+     */
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    /**
+     * Get the report of the last run: per-step attempts and time, and each recovery
+     */
+    public Map<String, Object> getReport() {
+        return report;
+    }
+
+    /**
+     * Forget the saved checkpoint, so the next run starts from the first step
+     */
+    public void deleteCheckpoint() {
+        try {
+            Files.deleteIfExists(checkpointFile);
+        } catch (IOException e) {
+            System.err.println("Error deleting flow checkpoint: " + e.getMessage());
+        }
+    }
+
+    private Map<String, Object> recover(String stepName, WebDriverException error, Checkpoint checkpoint) {
+        long start = System.nanoTime();
+        String resumeAt = checkpoint.completed < steps.size() ? steps.get(checkpoint.completed).name : "end";
+        System.err.println("Step '" + stepName + "' failed (" + firstLine(error) + "), recovering at step '"
+            + resumeAt + "'");
+        Map<String, Object> recovery = new LinkedHashMap<>();
+        recovery.put("step", stepName);
+        recovery.put("error", firstLine(error));
+        try (Tracer.Span span = Tracer.span("flow.recover")) {
+            boolean alive = isAlive(driver);
+            if (!alive) {
+                discard(driver);
+                driver = driverFactory.get();
+            }
+            recovery.put("newDriver", !alive);
+            restore(checkpoint);
+        } catch (WebDriverException e) {
+            // The step is tried anyway; if the browser is still broken it fails into the next recovery
+            recovery.put("restoreError", firstLine(e));
+        }
+        recovery.put("resumeAt", resumeAt);
+        recovery.put("recoveryMs", millis(System.nanoTime() - start));
+        return recovery;
+    }
+
+    /**
+     * Bring the driver back to a checkpoint's state
+     */
+    private void restore(Checkpoint checkpoint) {
+        driver.manage().deleteAllCookies();
+        if (checkpoint.state == null) {
+            driver.get("about:blank");
+            return;
+        }
+        String url = (String) checkpoint.state.get("url");
+        if (url == null || !url.startsWith("http")) {
+            driver.get(url == null ? "about:blank" : url);
+            return;
+        }
+        // Cookies and storage can only be set on the checkpoint's origin
+        driver.get(url);
+        SessionStateCache.apply(driver, checkpoint.state);
+        driver.get(url);
+    }
+
+    /**
+     * Find the WebDriverException behind a step failure, or null if it was not the browser
+     */
+    private static WebDriverException browserFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebDriverException) {
+                return (WebDriverException) cause;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    private static void addStepTime(Map<String, Object> stepReport, long start) {
+        stepReport.put("stepMs", (Double) stepReport.get("stepMs") + millis(System.nanoTime() - start));
+    }
+
+    private static boolean isAlive(WebDriver webDriver) {
+        try {
+            return !webDriver.getWindowHandles().isEmpty();
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static void discard(WebDriver webDriver) {
+        try {
+            if (DriverManager.getDriver() == webDriver) {
+                // Also removes a pooled session from its pool
+                DriverManager.quitDriver();
+            } else {
+                webDriver.quit();
+            }
+        } catch (WebDriverException e) {
+            // Already gone
+        }
+    }
+
+    private void saveCheckpoint(Checkpoint checkpoint) {
+        Map<String, Object> saved = new LinkedHashMap<>();
+        saved.put("flow", name);
+        saved.put("completed", checkpoint.completed);
+        saved.put("stepName", steps.get(checkpoint.completed - 1).name);
+        saved.put("savedAt", System.currentTimeMillis());
+        saved.put("state", checkpoint.state);
+        try {
+            SessionStateCache.writePrivate(checkpointFile, JSON.toJson(saved).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Error saving flow checkpoint: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load a checkpoint saved by an earlier run of this flow, if recent and still matching its steps
+     */
+    @SuppressWarnings("unchecked")
+    private Checkpoint loadCheckpoint() {
+        long maxAgeMillis = ConfigReader.getFlowCheckpointMaxAgeSeconds() * 1000L;
+        if (maxAgeMillis <= 0 || !Files.isRegularFile(checkpointFile)) {
+            return null;
+        }
+        try {
+            Map<String, Object> saved = JSON.toType(
+                new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8), Json.MAP_TYPE);
+            int completed = ((Number) saved.get("completed")).intValue();
+            long savedAt = ((Number) saved.get("savedAt")).longValue();
+            boolean matches = name.equals(saved.get("flow")) && completed > 0 && completed < steps.size()
+                && steps.get(completed - 1).name.equals(saved.get("stepName"));
+            if (!matches || System.currentTimeMillis() - savedAt > maxAgeMillis) {
+                deleteCheckpoint();
+                return null;
+            }
+            return new Checkpoint(completed, (Map<String, Object>) saved.get("state"));
+        } catch (Exception e) {
+            System.err.println("Ignoring unreadable flow checkpoint: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String firstLine(Throwable error) {
+        String message = String.valueOf(error.getMessage());
+        int newline = message.indexOf('\n');
+        return error.getClass().getSimpleName() + ": " + (newline < 0 ? message : message.substring(0, newline));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
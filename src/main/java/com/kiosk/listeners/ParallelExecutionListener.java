@@ -0,0 +1,283 @@
+package com.kiosk.listeners;
+
+import com.kiosk.utils.ConfigReader;
+import org.testng.IAlterSuiteListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TestNG listener that runs the suite across parallel.threads threads and
+ * balances them using the durations of earlier runs.
+ *
+ * With parallel.threads > 1 the suite's tests are merged into one and run with
+ * parallel="methods" (or "classes"), and pool.size is raised to the thread count
+ * so every thread borrows its own isolated session from DriverManager. Methods
+ * are ordered longest-first from the duration history, which makes TestNG's
+ * thread pool hand out work the way longest-processing-time sharding would, so
+ * the threads finish at about the same time. A class marked singleThreaded is
+ * kept together as one unit. Durations include the per-method setup and
+ * teardown and are written back after every run; wall-clock time is reported
+ * against the serial time.
+ */
+public class ParallelExecutionListener
+        implements IAlterSuiteListener, IMethodInterceptor, IInvokedMethodListener, ISuiteListener {
+
+    private static final String SERIAL_WALL_KEY = "suite.serialWallMillis";
+    // Weight of the newest observation in the duration average
+    private static final double ALPHA = 0.5;
+
+    private final Properties history = new Properties();
+    private final Map<String, Long> observed = new ConcurrentHashMap<>();
+    private final Map<String, Long> busyPerThread = new ConcurrentHashMap<>();
+    private final ThreadLocal<long[]> timing = ThreadLocal.withInitial(() -> new long[2]);
+    private final ThreadLocal<String> lastTest = new ThreadLocal<>();
+    private int threads = 1;
+    private long suiteStart;
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        threads = Math.max(1, ConfigReader.getParallelThreads());
+        if (threads == 1) {
+            return;
+        }
+        XmlSuite.ParallelMode mode = "classes".equalsIgnoreCase(ConfigReader.getParallelMode())
+            ? XmlSuite.ParallelMode.CLASSES
+            : XmlSuite.ParallelMode.METHODS;
+        for (XmlSuite suite : suites) {
+            mergeTests(suite);
+            suite.setParallel(mode);
+            suite.setThreadCount(threads);
+            for (XmlTest test : suite.getTests()) {
+                test.setParallel(mode);
+                test.setThreadCount(threads);
+            }
+        }
+        if (ConfigReader.getPoolSize() < threads) {
+            System.setProperty("pool.size", String.valueOf(threads));
+        }
+        System.out.println("Parallel run: " + threads + " threads, parallel=" + mode);
+    }
+
+    /**
+     * Move every class into one test, so the thread pool spans the whole suite
+     * instead of one test block at a time
+     */
+    private static void mergeTests(XmlSuite suite) {
+        List<XmlTest> tests = new ArrayList<>(suite.getTests());
+        if (tests.size() < 2) {
+            return;
+        }
+        XmlTest merged = new XmlTest(suite);
+        merged.setName(suite.getName() + " (parallel)");
+        Map<String, String> parameters = new LinkedHashMap<>();
+        List<XmlClass> classes = new ArrayList<>();
+        for (XmlTest test : tests) {
+            parameters.putAll(test.getLocalParameters());
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                XmlClass copy = new XmlClass(xmlClass.getName(), classes.size(), false);
+                copy.setIncludedMethods(xmlClass.getIncludedMethods());
+                copy.setExcludedMethods(xmlClass.getExcludedMethods());
+                classes.add(copy);
+            }
+        }
+        merged.setParameters(parameters);
+        merged.setXmlClasses(classes);
+        suite.getTests().removeAll(tests);
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        load();
+        suiteStart = System.currentTimeMillis();
+    }
+
+    /**
+     * Order the methods longest-first. Units (a method, or a whole class in classes
+     * mode or when singleThreaded) are sorted by their expected duration; methods
+     * without history are assumed to be as long as the longest known one, so new
+     * tests are not left for the end.
+     */
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (threads == 1) {
+            return methods;
+        }
+        boolean byClass = XmlSuite.ParallelMode.CLASSES.equals(context.getCurrentXmlTest().getParallel());
+        long longest = 0;
+        for (IMethodInstance method : methods) {
+            longest = Math.max(longest, expectedMillis(method.getMethod(), 0));
+        }
+
+        Map<String, List<IMethodInstance>> units = new LinkedHashMap<>();
+        Map<String, Long> unitMillis = new LinkedHashMap<>();
+        for (IMethodInstance method : methods) {
+            ITestNGMethod testMethod = method.getMethod();
+            String unit = byClass || isSingleThreaded(testMethod)
+                ? testMethod.getRealClass().getName()
+                : testMethod.getQualifiedName() + "#" + units.size();
+            units.computeIfAbsent(unit, key -> new ArrayList<>()).add(method);
+            unitMillis.merge(unit, expectedMillis(testMethod, longest), Long::sum);
+        }
+
+        List<String> order = new ArrayList<>(units.keySet());
+        order.sort(Comparator.comparing(unitMillis::get).reversed());
+        List<IMethodInstance> sorted = new ArrayList<>(methods.size());
+        for (String unit : order) {
+            sorted.addAll(units.get(unit));
+        }
+        printShards(order, unitMillis);
+        return sorted;
+    }
+
+    /**
+     * Print the longest-first assignment of units to threads and the makespan it predicts
+     */
+    private void printShards(List<String> order, Map<String, Long> unitMillis) {
+        PriorityQueue<long[]> loads = new PriorityQueue<>(Comparator.comparingLong((long[] load) -> load[0]));
+        for (int i = 0; i < threads; i++) {
+            loads.add(new long[] {0, i});
+        }
+        long serial = 0;
+        for (String unit : order) {
+            long[] load = loads.poll();
+            load[0] += unitMillis.get(unit);
+            loads.add(load);
+            serial += unitMillis.get(unit);
+        }
+        long makespan = 0;
+        for (long[] load : loads) {
+            makespan = Math.max(makespan, load[0]);
+        }
+        if (serial > 0) {
+            System.out.println(String.format("Sharded %d units longest-first over %d threads: "
+                + "expected wall %.1fs vs serial %.1fs", order.size(), threads, makespan / 1000.0, serial / 1000.0));
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        long now = System.currentTimeMillis();
+        long[] times = timing.get();
+        if (times[0] == 0) {
+            // First method since the thread's last test: setup counts towards the next test
+            times[0] = now;
+        }
+        times[1] = now;
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        long now = System.currentTimeMillis();
+        long[] times = timing.get();
+        busyPerThread.merge(Thread.currentThread().getName(), now - times[1], Long::sum);
+        if (method.isTestMethod()) {
+            String key = method.getTestMethod().getQualifiedName();
+            observed.merge(key, now - times[0], Long::sum);
+            lastTest.set(key);
+            times[0] = 0;
+        } else if (isTeardown(method.getTestMethod()) && lastTest.get() != null) {
+            // Teardown after a test is part of that test's cost
+            observed.merge(lastTest.get(), now - times[1], Long::sum);
+            times[0] = 0;
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        long wall = System.currentTimeMillis() - suiteStart;
+        long serial = 0;
+        for (Map.Entry<String, Long> entry : observed.entrySet()) {
+            serial += entry.getValue();
+            long previous = Long.parseLong(history.getProperty(entry.getKey(), "-1"));
+            long average = previous < 0 ? entry.getValue() : Math.round(ALPHA * entry.getValue() + (1 - ALPHA) * previous);
+            history.setProperty(entry.getKey(), String.valueOf(average));
+        }
+
+        if (threads == 1) {
+            history.setProperty(SERIAL_WALL_KEY, String.valueOf(wall));
+            System.out.println(String.format("Serial run: wall %.1fs over %d tests", wall / 1000.0, observed.size()));
+        } else {
+            System.out.println(String.format("Parallel run: %d threads, %d tests, wall %.1fs vs serial sum %.1fs "
+                + "(speedup %.2fx, efficiency %.0f%%)", threads, observed.size(), wall / 1000.0, serial / 1000.0,
+                wall == 0 ? 0 : (double) serial / wall, wall == 0 ? 0 : 100.0 * serial / wall / threads));
+            String lastSerial = history.getProperty(SERIAL_WALL_KEY);
+            if (lastSerial != null) {
+                long serialWall = Long.parseLong(lastSerial);
+                System.out.println(String.format("Last serial run: wall %.1fs (speedup %.2fx)",
+                    serialWall / 1000.0, wall == 0 ? 0 : (double) serialWall / wall));
+            }
+            for (Map.Entry<String, Long> entry : busyPerThread.entrySet()) {
+                System.out.println(String.format("  %-32s busy %.1fs", entry.getKey(), entry.getValue() / 1000.0));
+            }
+        }
+        save();
+        observed.clear();
+        busyPerThread.clear();
+    }
+
+    private long expectedMillis(ITestNGMethod method, long unknown) {
+        return Long.parseLong(history.getProperty(method.getQualifiedName(), String.valueOf(unknown)));
+    }
+
+    private static boolean isSingleThreaded(ITestNGMethod method) {
+        Class<?> testClass = method.getRealClass();
+        Test test = testClass.getAnnotation(Test.class);
+        return test != null && test.singleThreaded();
+    }
+
+    private static boolean isTeardown(ITestNGMethod method) {
+        return method.isAfterMethodConfiguration() || method.isAfterClassConfiguration();
+    }
+
+    private void load() {
+        history.clear();
+        File file = new File(ConfigReader.getTestDurationHistoryPath());
+        if (!file.isFile()) {
+            return;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            history.load(in);
+        } catch (IOException e) {
+            System.err.println("Error reading test duration history: " + e.getMessage());
+        }
+    }
+
+    private void save() {
+        File file = new File(ConfigReader.getTestDurationHistoryPath());
+        File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            history.store(out, "Observed test durations (ms), including per-method setup and teardown");
+        } catch (IOException e) {
+            System.err.println("Error writing test duration history: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.kiosk.listeners;
+
+import com.kiosk.server.KioskStandInServer;
+import com.kiosk.utils.ConfigReader;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+
+/**
+ * TestNG listener that starts the local stand-in kiosk server for the suite when
+ * standin.enabled=true and points kiosk.url at it, so the suite runs offline.
+ */
+public class StandInServerListener implements ISuiteListener {
+
+    private KioskStandInServer server;
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (!ConfigReader.isStandInEnabled()) {
+            return;
+        }
+        server = KioskStandInServer.fromConfig();
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start stand-in kiosk server: " + e.getMessage(), e);
+        }
+        System.setProperty("kiosk.url", server.getLoginUrl());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (server != null) {
+            server.stop();
+            System.clearProperty("kiosk.url");
+            server = null;
+        }
+    }
+}
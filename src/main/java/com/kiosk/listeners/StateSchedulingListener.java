@@ -0,0 +1,54 @@
+package com.kiosk.listeners;
+
+import com.kiosk.annotations.RequiresState;
+import com.kiosk.pages.KioskStates;
+import com.kiosk.utils.DriverManager;
+import com.kiosk.utils.StateScheduler;
+import org.openqa.selenium.WebDriver;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Method;
+
+/**
+ * TestNG listener that puts the thread's driver into the state named by a test
+ * method's {@code @RequiresState} before the method runs, after its
+ * {@code @BeforeMethod} has borrowed the driver. Shared prefixes are built once
+ * per suite by StateScheduler and restored from snapshots afterwards; the
+ * number of navigations and logins this removed is printed when the suite ends.
+ */
+public class StateSchedulingListener implements IInvokedMethodListener, ISuiteListener {
+
+    @Override
+    public void onStart(ISuite suite) {
+        KioskStates.register();
+        StateScheduler.reset();
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        // Also called for tests skipped because their setup failed
+        if (!method.isTestMethod() || testResult.getStatus() == ITestResult.SKIP) {
+            return;
+        }
+        Method testMethod = method.getTestMethod().getConstructorOrMethod().getMethod();
+        RequiresState required = testMethod == null ? null : testMethod.getAnnotation(RequiresState.class);
+        if (required == null) {
+            return;
+        }
+        WebDriver driver = DriverManager.getDriver();
+        if (driver == null) {
+            throw new IllegalStateException(testMethod.getName()
+                + " requires state " + required.value() + " but no driver is bound to this thread");
+        }
+        StateScheduler.enter(driver, required.value());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        System.out.println(StateScheduler.getReport());
+    }
+}
@@ -0,0 +1,70 @@
+package com.kiosk.listeners;
+
+import com.kiosk.utils.Tracer;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * TestNG listener that records suite, test and test-method spans, so page-object
+ * actions and driver commands nest under the test that ran them in the trace.
+ */
+public class TraceListener implements ISuiteListener, ITestListener {
+
+    private static final String SPAN_OPEN = "trace.spanOpen";
+
+    @Override
+    public void onStart(ISuite suite) {
+        Tracer.span(suite.getName());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Tracer.current().close();
+    }
+
+    @Override
+    public void onStart(ITestContext context) {
+        Tracer.span(context.getName());
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        Tracer.current().close();
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        Tracer.span(result.getMethod().getMethodName());
+        result.setAttribute(SPAN_OPEN, Boolean.TRUE);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        closeTestSpan(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        closeTestSpan(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        closeTestSpan(result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        closeTestSpan(result);
+    }
+
+    private static void closeTestSpan(ITestResult result) {
+        // Tests skipped because of a failed dependency never started a span
+        if (result.removeAttribute(SPAN_OPEN) != null) {
+            Tracer.current().close();
+        }
+    }
+}
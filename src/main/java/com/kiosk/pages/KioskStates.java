@@ -0,0 +1,55 @@
+package com.kiosk.pages;
+
+import com.kiosk.utils.AdaptiveWaitPolicy;
+import com.kiosk.utils.ConfigReader;
+import com.kiosk.utils.StateScheduler;
+import com.kiosk.utils.StateScheduler.Kind;
+import com.kiosk.utils.WaitPolicy;
+import org.openqa.selenium.TimeoutException;
+
+import java.time.Duration;
+
+/**
+ * The kiosk's shared test states, for use with {@code @RequiresState}:
+ * LOGIN_FORM (kiosk URL loaded, login form shown) and LOGGED_IN (logged in
+ * with the configured credentials, reached from LOGIN_FORM).
+ */
+public class KioskStates {
+
+    public static final String LOGIN_FORM = "loginForm";
+    public static final String LOGGED_IN = "loggedIn";
+
+    private static final Duration LOGIN_FORM_CHECK_TIMEOUT = Duration.ofSeconds(2);
+
+    /**
+     * Define the states with StateScheduler; calling it again has no effect
+     */
+    public static synchronized void register() {
+        if (StateScheduler.isDefined(LOGIN_FORM)) {
+            return;
+        }
+        StateScheduler.define(LOGIN_FORM, null, Kind.NAVIGATION,
+            driver -> {
+                driver.get(ConfigReader.getKioskUrl());
+                new LoginPage(driver).waitForLoginForm();
+            },
+            driver -> {
+                // A real check rather than a learned wait: the form may still be rendering
+                // after the restore's reload, but a wrong page must fail
+                LoginPage loginPage = new LoginPage(driver);
+                try {
+                    return WaitPolicy.until(driver, d -> loginPage.isLoginFormShown(), LOGIN_FORM_CHECK_TIMEOUT);
+                } catch (TimeoutException e) {
+                    return false;
+                }
+            });
+        StateScheduler.define(LOGGED_IN, LOGIN_FORM, Kind.LOGIN,
+            driver -> {
+                LoginPage loginPage = new LoginPage(driver);
+                loginPage.login(ConfigReader.getUsername(), ConfigReader.getPassword());
+                AdaptiveWaitPolicy.await("state.loggedIn", 3000, loginPage::isLoginFormGone);
+            },
+            // The restore reloads the page, so an expired session shows the login form again
+            driver -> new LoginPage(driver).isLoginFormGone());
+    }
+}
@@ -1,11 +1,22 @@
 package com.kiosk.pages;
 
+import com.kiosk.annotations.Locate;
 import com.kiosk.base.BasePage;
+import com.kiosk.base.LocatorMatch;
+import com.kiosk.utils.AdaptiveWaitPolicy;
+import com.kiosk.utils.HttpLoginClient;
+import com.kiosk.utils.SessionStateCache;
+import com.kiosk.utils.Tracer;
+import com.kiosk.utils.WaitPolicy;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Login Page Object Model class.
@@ -13,74 +24,66 @@ import org.openqa.selenium.support.PageFactory;
  */
 public class LoginPage extends BasePage {
     
-    // Page Object Model - Using @FindBy annotations
-    // These will be initialized by PageFactory
-    
-    // Username field locators (trying multiple common patterns)
-    @FindBy(id = "username")
-    private WebElement usernameById;
-    
-    @FindBy(name = "username")
-    private WebElement usernameByName;
-    
-    @FindBy(xpath = "//input[@type='text']")
-    private WebElement usernameByType;
-    
-    @FindBy(xpath = "//input[@placeholder='Username' or @placeholder='User']")
-    private WebElement usernameByPlaceholder;
-    
-    // Password field locators
-    @FindBy(id = "password")
-    private WebElement passwordById;
-    
-    @FindBy(name = "password")
-    private WebElement passwordByName;
-    
-    @FindBy(xpath = "//input[@type='password']")
-    private WebElement passwordByType;
-    
-    // Login button locators
-    @FindBy(xpath = "//button[@type='submit']")
-    private WebElement loginButtonBySubmit;
-    
-    @FindBy(xpath = "//input[@type='submit']")
-    private WebElement loginInputBySubmit;
+    // Elements used directly, without a fallback chain. The implementation
+    // (LoginPage_Elements) is generated at build time by LocatorProcessor.
+    interface Elements {
+        // Wider than the candidate chain: buttons without a type or with another
+        // label, and input buttons whose click is handled by script
+        @Locate(css = "form button, form input[type='button']")
+        WebElement loginButton();
+    }
     
-    @FindBy(xpath = "//button[contains(text(), 'Login') or contains(text(), 'Sign in') or contains(text(), 'Log in')]")
-    private WebElement loginButtonByText;
+    // The candidate chain has already waited out the step timeout by the time
+    // the fallback runs, so it only allows for a re-render
+    private static final Duration FALLBACK_TIMEOUT = Duration.ofSeconds(2);
     
-    @FindBy(id = "login-button")
-    private WebElement loginButtonById;
+    private final Elements elements;
     
     // Alternative locators using By class (more flexible)
     private By usernameField = By.xpath("//input[@type='text' or @name='username' or @id='username' or contains(@class, 'user')]");
     private By passwordField = By.xpath("//input[@type='password' or @name='password' or @id='password']");
     private By loginButton = By.xpath("//button[@type='submit'] | //input[@type='submit'] | //button[contains(text(), 'Login')]");
     
+    // Fallback chains per logical element, in the order they are tried on a first run
+    private List<By> usernameCandidates = Arrays.asList(
+        usernameField,
+        By.id("username"),
+        By.name("username"),
+        By.xpath("//input[@type='text']")
+    );
+    private List<By> passwordCandidates = Arrays.asList(
+        passwordField,
+        By.id("password"),
+        By.name("password"),
+        By.xpath("//input[@type='password']")
+    );
+    private List<By> loginButtonCandidates = Arrays.asList(
+        loginButton,
+        By.xpath("//button[@type='submit']"),
+        By.xpath("//input[@type='submit']"),
+        By.id("login-button")
+    );
+    
     public LoginPage(WebDriver driver) {
         super(driver);
-        PageFactory.initElements(driver, this);
+        this.elements = new LoginPage_Elements(driver);
     }
     
     /**
      * Enter username using flexible locator strategy
      */
     public void enterUsername(String username) {
-        try {
-            // Try to find and use username field
-            if (isElementPresent(usernameField)) {
-                enterText(usernameField, username);
-            } else if (isElementDisplayed(By.id("username"))) {
-                enterText(By.id("username"), username);
-            } else if (isElementDisplayed(By.name("username"))) {
-                enterText(By.name("username"), username);
-            } else if (isElementDisplayed(By.xpath("//input[@type='text']"))) {
-                enterText(By.xpath("//input[@type='text']"), username);
-            } else {
+        try (Tracer.Span span = Tracer.span("LoginPage.enterUsername")) {
+            LocatorMatch field = resolveLocator("username", usernameCandidates);
+            if (field == null) {
                 throw new RuntimeException("Username field not found");
             }
+            enterText(field, username);
+        } catch (WebDriverException e) {
+            // Unchanged, so callers such as FlowEngine can tell a browser failure
+            throw e;
         } catch (Exception e) {
-            throw new RuntimeException("Failed to enter username: " + e.getMessage());
+            throw new RuntimeException("Failed to enter username: " + e.getMessage(), e);
         }
     }
     
@@ -88,21 +91,17 @@ public class LoginPage extends BasePage {
      * Enter password using flexible locator strategy
      */
     public void enterPassword(String password) {
-        try {
-            // Try to find and use password field
-            if (isElementPresent(passwordField)) {
-                enterText(passwordField, password);
-            } else if (isElementDisplayed(By.id("password"))) {
-                enterText(By.id("password"), password);
-            } else if (isElementDisplayed(By.name("password"))) {
-                enterText(By.name("password"), password);
-            } else if (isElementDisplayed(By.xpath("//input[@type='password']"))) {
-                enterText(By.xpath("//input[@type='password']"), password);
-            } else {
+        try (Tracer.Span span = Tracer.span("LoginPage.enterPassword")) {
+            LocatorMatch field = resolveLocator("password", passwordCandidates);
+            if (field == null) {
                 throw new RuntimeException("Password field not found");
             }
+            enterText(field, password);
+        } catch (WebDriverException e) {
+            // Unchanged, so callers such as FlowEngine can tell a browser failure
+            throw e;
         } catch (Exception e) {
-            throw new RuntimeException("Failed to enter password: " + e.getMessage());
+            throw new RuntimeException("Failed to enter password: " + e.getMessage(), e);
         }
     }
     
@@ -110,22 +109,27 @@ public class LoginPage extends BasePage {
      * Click login button using flexible locator strategy
      */
     public void clickLoginButton() {
-        try {
-            // Try multiple strategies to find login button
-            if (isElementPresent(loginButton)) {
-                click(loginButton);
-            } else if (isElementDisplayed(By.xpath("//button[@type='submit']"))) {
-                click(By.xpath("//button[@type='submit']"));
-            } else if (isElementDisplayed(By.xpath("//input[@type='submit']"))) {
-                click(By.xpath("//input[@type='submit']"));
-            } else if (isElementDisplayed(By.id("login-button"))) {
-                click(By.id("login-button"));
+        try (Tracer.Span span = Tracer.span("LoginPage.clickLoginButton")) {
+            LocatorMatch button = resolveLocator("loginButton", loginButtonCandidates);
+            if (button != null) {
+                click(button);
             } else {
-                // Try JavaScript click as fallback
-                clickUsingJS(loginButton);
+                // Try a JavaScript click on any button in the form; a stale click is
+                // retried on the next poll, which finds the button again
+                WebElement fallback = elements.loginButton();
+                WaitPolicy.until(driver, d -> {
+                    if (!fallback.isDisplayed() || !fallback.isEnabled()) {
+                        return false;
+                    }
+                    ((JavascriptExecutor) d).executeScript("arguments[0].click();", fallback);
+                    return true;
+                }, WaitPolicy.capped(FALLBACK_TIMEOUT));
             }
+        } catch (WebDriverException e) {
+            // Unchanged, so callers such as FlowEngine can tell a browser failure
+            throw e;
         } catch (Exception e) {
-            throw new RuntimeException("Failed to click login button: " + e.getMessage());
+            throw new RuntimeException("Failed to click login button: " + e.getMessage(), e);
         }
     }
     
@@ -133,22 +137,121 @@ public class LoginPage extends BasePage {
      * Perform complete login action
      */
     public void login(String username, String password) {
-        enterUsername(username);
-        wait(1);
-        enterPassword(password);
-        wait(1);
-        clickLoginButton();
-        waitForPageLoad();
-        wait(2); // Wait for navigation after login
+        try (Tracer.Span span = Tracer.span("LoginPage.login")) {
+            enterUsername(username);
+            AdaptiveWaitPolicy.await("login.afterUsername", 1000, this::isPasswordFieldShown);
+            enterPassword(password);
+            AdaptiveWaitPolicy.await("login.afterPassword", 1000, this::isLoginButtonEnabled);
+            clickLoginButton();
+            waitForPageReady(); // Wait for navigation and post-login requests
+        }
+    }
+    
+    /**
+     * Log in by restoring a cached session state, falling back to the UI login
+     * when no state is cached or the server rejects it.
+     * Returns true if the cached state was used.
+     */
+    public boolean loginWithCachedSession(String kioskUrl, String username, String password) {
+        try (Tracer.Span span = Tracer.span("LoginPage.loginWithCachedSession")) {
+            if (SessionStateCache.restore(driver, username, kioskUrl)) {
+                waitForPageLoad();
+                if (!isPasswordFieldShown()) {
+                    System.out.println("Restored cached session for " + username);
+                    return true;
+                }
+                System.out.println("Cached session for " + username + " was rejected");
+                SessionStateCache.invalidate(username, kioskUrl);
+            }
+        
+            waitForLoginForm();
+            login(username, password);
+            if (!isPasswordFieldShown()) {
+                SessionStateCache.save(driver, username, kioskUrl);
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Log in over HTTP and inject the session cookies into the browser, for flows
+     * where the login form itself is not under test. Falls back to the UI login
+     * when the protocol login fails or the browser does not accept the session.
+     * Returns true if the protocol login was used.
+     */
+    public boolean loginViaHttp(String kioskUrl, String username, String password) {
+        try (Tracer.Span span = Tracer.span("LoginPage.loginViaHttp")) {
+            HttpLoginClient.Result result = new HttpLoginClient().login(kioskUrl, username, password);
+            if (result.isSuccess()) {
+                long injectStart = System.nanoTime();
+                HttpLoginClient.injectInto(driver, result);
+                waitForPageLoad();
+                long injectMillis = (System.nanoTime() - injectStart) / 1_000_000;
+                if (!isPasswordFieldShown()) {
+                    System.out.println("Protocol login: " + result.getElapsedMillis() + "ms HTTP + "
+                        + injectMillis + "ms cookie injection");
+                    return true;
+                }
+                System.out.println("Browser did not accept the protocol login session");
+            } else {
+                System.out.println("Protocol login unavailable: " + result.getMessage());
+            }
+        
+            long uiStart = System.nanoTime();
+            if (!getCurrentUrl().startsWith(kioskUrl)) {
+                navigateTo(kioskUrl);
+            }
+            waitForLoginForm();
+            enterUsername(username);
+            enterPassword(password);
+            clickLoginButton();
+            waitForPageLoad();
+            System.out.println("UI login fallback: " + (System.nanoTime() - uiStart) / 1_000_000 + "ms");
+            return false;
+        }
+    }
+    
+    /**
+     * Check instantly whether the page has loaded and no login form is shown
+     */
+    public boolean isLoginFormGone() {
+        return isDocumentComplete() && !isPasswordFieldShown();
+    }
+    
+    /**
+     * Check instantly whether the page has loaded and shows the login form
+     */
+    public boolean isLoginFormShown() {
+        return isDocumentComplete() && isPasswordFieldShown();
+    }
+    
+    private boolean isDocumentComplete() {
+        return "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState"));
+    }
+    
+    private boolean isLoginButtonEnabled() {
+        Object enabled = ((JavascriptExecutor) driver).executeScript(
+            "var b = document.querySelector(\"button[type='submit'], input[type='submit']\");" +
+            "return b === null || !b.disabled;");
+        return Boolean.TRUE.equals(enabled);
+    }
+    
+    /**
+     * Check instantly (without waiting) whether a password field is on the page
+     */
+    private boolean isPasswordFieldShown() {
+        Object found = ((JavascriptExecutor) driver).executeScript(
+            "var e = document.querySelector(\"input[type='password']\");" +
+            "return e !== null && e.offsetParent !== null;");
+        return Boolean.TRUE.equals(found);
     }
     
     /**
      * Check if login page is displayed
      */
     public boolean isLoginPageDisplayed() {
-        return isElementPresent(usernameField) || 
-               isElementPresent(By.id("username")) ||
-               isElementPresent(By.name("username"));
+        // One bounded wait for any username candidate instead of a full timeout per candidate
+        return findFirstMatch(usernameCandidates) != null;
     }
     
     /**
@@ -0,0 +1,200 @@
+package com.kiosk.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates page-element accessor classes for interfaces whose methods carry
+ * {@code @Locate}, replacing PageFactory's reflective proxies.
+ *
+ * For an interface LoginPage.Elements it writes LoginPage_Elements in the same
+ * package. Each accessor creates a ResilientElement on first call and returns
+ * the same handle afterwards, so constructing a page does no lookups and no
+ * reflection.
+ */
+public class LocatorProcessor extends AbstractProcessor {
+
+    private static final String LOCATE = "com.kiosk.annotations.Locate";
+    private static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+
+    // @Locate attribute -> By factory method
+    private static final Map<String, String> STRATEGIES = new LinkedHashMap<>();
+
+    static {
+        STRATEGIES.put("id", "id");
+        STRATEGIES.put("name", "name");
+        STRATEGIES.put("css", "cssSelector");
+        STRATEGIES.put("xpath", "xpath");
+        STRATEGIES.put("className", "className");
+        STRATEGIES.put("linkText", "linkText");
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(LOCATE);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement locate = processingEnv.getElementUtils().getTypeElement(LOCATE);
+        if (locate == null) {
+            return false;
+        }
+        Map<TypeElement, List<ExecutableElement>> byInterface = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(locate)) {
+            ExecutableElement method = (ExecutableElement) element;
+            TypeElement owner = (TypeElement) method.getEnclosingElement();
+            if (owner.getKind() != ElementKind.INTERFACE) {
+                error(method, "@Locate is only allowed on interface methods");
+                continue;
+            }
+            if (!method.getParameters().isEmpty() || !WEB_ELEMENT.equals(method.getReturnType().toString())) {
+                error(method, "@Locate methods must take no arguments and return WebElement");
+                continue;
+            }
+            byInterface.computeIfAbsent(owner, key -> new ArrayList<>()).add(method);
+        }
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : byInterface.entrySet()) {
+            generate(entry.getKey(), entry.getValue());
+        }
+        return true;
+    }
+
+    private void generate(TypeElement owner, List<ExecutableElement> methods) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(owner).getQualifiedName().toString();
+        String className = generatedName(owner);
+        String pageName = owner.getEnclosingElement() instanceof TypeElement
+            ? owner.getEnclosingElement().getSimpleName().toString()
+            : owner.getSimpleName().toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import com.kiosk.base.ResilientElement;\n");
+        source.append("import org.openqa.selenium.By;\n");
+        source.append("import org.openqa.selenium.SearchContext;\n");
+        source.append("import org.openqa.selenium.WebElement;\n\n");
+        source.append("/**\n * Generated by ").append(LocatorProcessor.class.getName())
+            .append(" from ").append(owner.getQualifiedName()).append(". Do not edit.\n */\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(LocatorProcessor.class.getName()).append("\")\n");
+        source.append("final class ").append(className).append(" implements ")
+            .append(canonicalName(owner, packageName)).append(" {\n\n");
+        source.append("    private final SearchContext context;\n");
+        for (ExecutableElement method : methods) {
+            source.append("    private WebElement ").append(method.getSimpleName()).append(";\n");
+        }
+        source.append("\n    ").append(className).append("(SearchContext context) {\n");
+        source.append("        this.context = context;\n    }\n");
+
+        for (ExecutableElement method : methods) {
+            String by = byExpression(method);
+            if (by == null) {
+                return;
+            }
+            String name = method.getSimpleName().toString();
+            source.append("\n    @Override\n");
+            source.append("    public WebElement ").append(name).append("() {\n");
+            source.append("        if (").append(name).append(" == null) {\n");
+            source.append("            ").append(name).append(" = new ResilientElement(context, ").append(by)
+                .append(", \"").append(pageName).append('.').append(name).append("\");\n");
+            source.append("        }\n");
+            source.append("        return ").append(name).append(";\n");
+            source.append("    }\n");
+        }
+        source.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, owner).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            error(owner, "Cannot write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Build the By expression for a method's single locator strategy; reports an error and returns null otherwise
+     */
+    private String byExpression(ExecutableElement method) {
+        String by = null;
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (!LOCATE.equals(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+                    : mirror.getElementValues().entrySet()) {
+                String strategy = STRATEGIES.get(value.getKey().getSimpleName().toString());
+                String locator = String.valueOf(value.getValue().getValue());
+                if (strategy == null || locator.isEmpty()) {
+                    continue;
+                }
+                if (by != null) {
+                    error(method, "@Locate must set exactly one strategy");
+                    return null;
+                }
+                by = "By." + strategy + "(" + javaString(locator) + ")";
+            }
+        }
+        if (by == null) {
+            error(method, "@Locate must set exactly one strategy");
+        }
+        return by;
+    }
+
+    /**
+     * LoginPage.Elements becomes LoginPage_Elements
+     */
+    private static String generatedName(TypeElement owner) {
+        StringBuilder name = new StringBuilder(owner.getSimpleName());
+        Element enclosing = owner.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.toString();
+    }
+
+    private static String canonicalName(TypeElement owner, String packageName) {
+        String name = owner.getQualifiedName().toString();
+        return packageName.isEmpty() ? name : name.substring(packageName.length() + 1);
+    }
+
+    private static String javaString(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"': literal.append("\\\""); break;
+                case '\\': literal.append("\\\\"); break;
+                case '\n': literal.append("\\n"); break;
+                case '\t': literal.append("\\t"); break;
+                default: literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
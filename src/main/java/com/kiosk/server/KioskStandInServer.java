@@ -0,0 +1,373 @@
+package com.kiosk.server;
+
+import com.kiosk.utils.ConfigReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the kiosk web application, so the runner, tests and
+ * benchmarks can run reproducibly without the real system or any network.
+ *
+ * Serves a login page matching the locators LoginPage expects (/user), a form
+ * post that sets a session cookie (/login), a post-login page (/home) whose
+ * content is filled in by an XHR (/api/status), and /logout. Every response is
+ * delayed by the configured latency plus random jitter, /api/status adds a
+ * further slow-XHR delay, and a configurable fraction of responses fail with 503.
+ * With TLS on, a self-signed certificate is generated with the JDK's keytool.
+ *
+ * Run standalone with:
+ * mvn exec:java -Dexec.mainClass=com.kiosk.server.KioskStandInServer
+ */
+public class KioskStandInServer {
+
+    private static final String SESSION_COOKIE = "KIOSK_SESSION";
+    private static final String KEYSTORE_PASSWORD = "changeit";
+
+    private static final String LOGIN_PAGE =
+        "<!DOCTYPE html><html><head><title>Kiosk Login</title></head><body>" +
+        "<h1>Kiosk Login</h1>%s" +
+        "<form method='post' action='/login'>" +
+        "<input type='hidden' name='csrf' value='%s'>" +
+        "<input type='text' id='username' name='username' placeholder='Username'>" +
+        "<input type='password' id='password' name='password' placeholder='Password'>" +
+        "<button type='submit' id='login-button'>Login</button>" +
+        "</form></body></html>";
+
+    private static final String HOME_PAGE =
+        "<!DOCTYPE html><html><head><title>Kiosk Home</title></head><body>" +
+        "<h1>Welcome, %s</h1><div id='status'>Loading...</div>" +
+        "<a id='logout' href='/logout'>Logout</a>" +
+        "<script>fetch('/api/status').then(function(r) { return r.json(); })" +
+        ".then(function(d) { document.getElementById('status').textContent = d.status; });</script>" +
+        "</body></html>";
+
+    private final int port;
+    private final boolean tls;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final long slowXhrMillis;
+    private final double errorRate;
+    private final String username;
+    private final String password;
+
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+    private final Set<String> csrfTokens = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Create a stand-in server; port 0 picks a free port
+     */
+    public KioskStandInServer(int port, boolean tls, long latencyMillis, long jitterMillis,
+                              long slowXhrMillis, double errorRate, String username, String password) {
+        this.port = port;
+        this.tls = tls;
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.slowXhrMillis = slowXhrMillis;
+        this.errorRate = errorRate;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Create a stand-in server from the standin.* settings, accepting the configured credentials
+     */
+    public static KioskStandInServer fromConfig() {
+        return new KioskStandInServer(
+            ConfigReader.getStandInPort(),
+            ConfigReader.isStandInTls(),
+            ConfigReader.getStandInLatencyMillis(),
+            ConfigReader.getStandInJitterMillis(),
+            ConfigReader.getStandInSlowXhrMillis(),
+            ConfigReader.getStandInErrorRate(),
+            ConfigReader.getUsername(),
+            ConfigReader.getPassword()
+        );
+    }
+
+    /**
+     * Start listening on the loopback interface
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        if (tls) {
+            HttpsServer httpsServer = HttpsServer.create(address, 0);
+            httpsServer.setHttpsConfigurator(new HttpsConfigurator(selfSignedContext()));
+            server = httpsServer;
+        } else {
+            server = HttpServer.create(address, 0);
+        }
+        // Delays sleep on the handler thread, so concurrent requests need their own threads
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "kiosk-standin");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/user", handler(this::loginPage));
+        server.createContext("/login", handler(this::login));
+        server.createContext("/home", handler(this::home));
+        server.createContext("/api/status", handler(this::status));
+        server.createContext("/logout", handler(this::logout));
+        server.createContext("/", handler(exchange -> redirect(exchange, "/user")));
+        server.start();
+        System.out.println("Kiosk stand-in server listening on " + getLoginUrl());
+    }
+
+    /**
+     * Stop the server
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        System.out.println(String.format("Kiosk stand-in server stopped (%d requests, %d injected errors)",
+            requests.get(), injectedErrors.get()));
+    }
+
+    /**
+     * Get the base URL, e.g. http://127.0.0.1:8080
+     */
+    public String getBaseUrl() {
+        return (tls ? "https" : "http") + "://" + server.getAddress().getAddress().getHostAddress()
+            + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Get the URL of the login page, to use as kiosk.url
+     */
+    public String getLoginUrl() {
+        return getBaseUrl() + "/user";
+    }
+
+    /**
+     * Get the number of requests served
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    private interface Route {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Apply latency, jitter and injected errors around a route
+     */
+    private HttpHandler handler(Route route) {
+        return exchange -> {
+            try {
+                requests.incrementAndGet();
+                long jitter = jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1) : 0;
+                sleep(Math.max(0, latencyMillis + jitter));
+                if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                    injectedErrors.incrementAndGet();
+                    respond(exchange, 503, "text/plain", "Service temporarily unavailable");
+                    return;
+                }
+                route.handle(exchange);
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private void loginPage(HttpExchange exchange) throws IOException {
+        if (sessionUser(exchange) != null) {
+            redirect(exchange, "/home");
+            return;
+        }
+        String query = exchange.getRequestURI().getQuery();
+        String error = query != null && query.contains("error")
+            ? "<div class='error' id='error'>Invalid username or password</div>" : "";
+        String token = UUID.randomUUID().toString();
+        csrfTokens.add(token);
+        respond(exchange, 200, "text/html; charset=utf-8", String.format(LOGIN_PAGE, error, token));
+    }
+
+    private void login(HttpExchange exchange) throws IOException {
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            redirect(exchange, "/user");
+            return;
+        }
+        Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String csrf = form.get("csrf");
+        boolean validToken = csrf != null && csrfTokens.remove(csrf);
+        if (validToken && username.equals(form.get("username")) && password.equals(form.get("password"))) {
+            String session = UUID.randomUUID().toString();
+            sessions.put(session, username);
+            exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; Path=/; HttpOnly");
+            redirect(exchange, "/home");
+        } else {
+            redirect(exchange, "/user?error=1");
+        }
+    }
+
+    private void home(HttpExchange exchange) throws IOException {
+        String user = sessionUser(exchange);
+        if (user == null) {
+            redirect(exchange, "/user");
+            return;
+        }
+        respond(exchange, 200, "text/html; charset=utf-8", String.format(HOME_PAGE, user));
+    }
+
+    private void status(HttpExchange exchange) throws IOException {
+        if (sessionUser(exchange) == null) {
+            respond(exchange, 401, "application/json", "{\"status\": \"unauthorized\"}");
+            return;
+        }
+        sleep(slowXhrMillis);
+        respond(exchange, 200, "application/json", "{\"status\": \"Ready\"}");
+    }
+
+    private void logout(HttpExchange exchange) throws IOException {
+        String session = sessionId(exchange);
+        if (session != null) {
+            sessions.remove(session);
+        }
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=; Path=/; Max-Age=0");
+        redirect(exchange, "/user");
+    }
+
+    private String sessionUser(HttpExchange exchange) {
+        String session = sessionId(exchange);
+        return session == null ? null : sessions.get(session);
+    }
+
+    private static String sessionId(HttpExchange exchange) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", Collections.emptyList())) {
+            for (String cookie : header.split(";")) {
+                String[] parts = cookie.trim().split("=", 2);
+                if (parts.length == 2 && SESSION_COOKIE.equals(parts[0])) {
+                    return parts[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length == 2) {
+                form.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    URLDecoder.decode(parts[1], StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.getResponseHeaders().add("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Generate a throwaway self-signed certificate for 127.0.0.1/localhost with keytool
+     */
+    private static SSLContext selfSignedContext() throws IOException {
+        File keystore = Files.createTempFile("kiosk-standin", ".p12").toFile();
+        keystore.delete();
+        keystore.deleteOnExit();
+        String keytool = System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool";
+        Process process = new ProcessBuilder(keytool, "-genkeypair",
+            "-alias", "kiosk-standin", "-keyalg", "RSA", "-keysize", "2048", "-validity", "2",
+            "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+            "-storetype", "PKCS12", "-keystore", keystore.getAbsolutePath(),
+            "-storepass", KEYSTORE_PASSWORD, "-keypass", KEYSTORE_PASSWORD, "-noprompt")
+            .redirectErrorStream(true)
+            .start();
+        try {
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (!process.waitFor(30, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                throw new IOException("keytool failed: " + output.trim());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating certificate", e);
+        }
+
+        try (InputStream in = new FileInputStream(keystore)) {
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            store.load(in, KEYSTORE_PASSWORD.toCharArray());
+            KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagers.init(store, KEYSTORE_PASSWORD.toCharArray());
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(keyManagers.getKeyManagers(), null, new SecureRandom());
+            return context;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Cannot load generated certificate: " + e.getMessage(), e);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        KioskStandInServer server = fromConfig();
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "kiosk-standin-stop"));
+        System.out.println("Set kiosk.url=" + server.getLoginUrl() + " to use it; Ctrl+C to stop");
+        Thread.currentThread().join();
+    }
+}
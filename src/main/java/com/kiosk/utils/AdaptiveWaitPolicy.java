@@ -0,0 +1,179 @@
+package com.kiosk.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Replaces fixed post-action sleeps with condition waits whose budget is learned
+ * from how long the condition actually took in earlier runs.
+ *
+ * Each named step keeps its most recent durations on disk. Until a step has
+ * enough samples its budget is the sleep it replaces; afterwards the budget is
+ * the configured percentile of the history times a safety multiplier, never
+ * more than the sleep it replaces. A wait that runs out of budget does not fail,
+ * exactly like the sleep it replaces, and is recorded at the full sleep, so a
+ * condition that never holds (e.g. a kiosk that is down) brings the budget back
+ * to the sleep and no further.
+ */
+public class AdaptiveWaitPolicy {
+
+    private static final int MAX_SAMPLES = 50;
+    private static final long MIN_BUDGET_MS = 250;
+    private static final long CHECK_INTERVAL_MS = 100;
+
+    private static final Properties history = new Properties();
+    private static final AtomicLong savedMillis = new AtomicLong();
+    private static final AtomicLong waitedMillis = new AtomicLong();
+    private static final AtomicLong waits = new AtomicLong();
+
+    static {
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (waits.get() > 0) {
+                System.out.println(String.format("Adaptive waits: %d waits, %dms waited, %dms saved vs fixed sleeps",
+                    waits.get(), waitedMillis.get(), savedMillis.get()));
+            }
+        }, "adaptive-wait-stats"));
+    }
+
+    /**
+     * Wait until the condition holds, bounded by the step's learned budget.
+     * fixedSleepMillis is the unconditional sleep this wait replaces.
+     * Returns true if the condition was met within the budget.
+     */
+    public static boolean await(String step, long fixedSleepMillis, BooleanSupplier condition) {
+        if (!ConfigReader.isAdaptiveWaitEnabled()) {
+            sleep(fixedSleepMillis);
+            return true;
+        }
+
+        long budget = budgetFor(step, fixedSleepMillis);
+        long start = System.nanoTime();
+        boolean met = false;
+        while (true) {
+            if (check(condition)) {
+                met = true;
+                break;
+            }
+            long remaining = budget - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (remaining <= 0) {
+                break;
+            }
+            sleep(Math.min(CHECK_INTERVAL_MS, remaining));
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        waits.incrementAndGet();
+        waitedMillis.addAndGet(elapsed);
+        savedMillis.addAndGet(Math.max(0, fixedSleepMillis - elapsed));
+        // A timed-out wait says nothing about how long the condition takes; recording it
+        // at the fixed sleep keeps the budget from shrinking below what was needed
+        recordSample(step, met ? elapsed : fixedSleepMillis);
+        if (!met) {
+            System.out.println("Step '" + step + "' condition not met within " + budget + "ms, continuing");
+        }
+        return met;
+    }
+
+    /**
+     * Get the current budget in milliseconds for a step, at most fixedSleepMillis
+     */
+    public static synchronized long budgetFor(String step, long fixedSleepMillis) {
+        List<Long> samples = samples(step);
+        if (samples.size() < ConfigReader.getAdaptiveWaitMinSamples()) {
+            return fixedSleepMillis;
+        }
+        Collections.sort(samples);
+        int rank = (int) Math.ceil(ConfigReader.getAdaptiveWaitPercentile() / 100.0 * samples.size()) - 1;
+        long percentile = samples.get(Math.max(0, Math.min(rank, samples.size() - 1)));
+        long budget = Math.max(MIN_BUDGET_MS, (long) (percentile * ConfigReader.getAdaptiveWaitMultiplier()));
+        return Math.min(budget, fixedSleepMillis);
+    }
+
+    /**
+     * Get total time saved by adaptive waits in this run compared to the fixed sleeps
+     */
+    public static long getSavedMillis() {
+        return savedMillis.get();
+    }
+
+    private static boolean check(BooleanSupplier condition) {
+        try {
+            return condition.getAsBoolean();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static synchronized void recordSample(String step, long elapsedMillis) {
+        List<Long> samples = samples(step);
+        samples.add(elapsedMillis);
+        while (samples.size() > MAX_SAMPLES) {
+            samples.remove(0);
+        }
+        StringBuilder value = new StringBuilder();
+        for (Long sample : samples) {
+            if (value.length() > 0) {
+                value.append(',');
+            }
+            value.append(sample);
+        }
+        history.setProperty(step, value.toString());
+        save();
+    }
+
+    private static List<Long> samples(String step) {
+        List<Long> samples = new ArrayList<>();
+        String value = history.getProperty(step);
+        if (value != null && !value.isEmpty()) {
+            for (String sample : value.split(",")) {
+                samples.add(Long.parseLong(sample.trim()));
+            }
+        }
+        return samples;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void load() {
+        File file = new File(ConfigReader.getAdaptiveWaitHistoryPath());
+        if (!file.isFile()) {
+            return;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            history.load(in);
+        } catch (IOException e) {
+            System.err.println("Error reading wait history: " + e.getMessage());
+        }
+    }
+
+    private static void save() {
+        File file = new File(ConfigReader.getAdaptiveWaitHistoryPath());
+        File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            history.store(out, "Observed post-action wait durations (ms)");
+        } catch (IOException e) {
+            System.err.println("Error writing wait history: " + e.getMessage());
+        }
+    }
+}
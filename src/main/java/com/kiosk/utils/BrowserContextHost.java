@@ -0,0 +1,356 @@
+package com.kiosk.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.HasDevTools;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One Chromium browser hosting many isolated browser contexts, each with its own
+ * cookie jar and storage, created over DevTools with Target.createBrowserContext.
+ *
+ * A context is handed out as its own WebDriver, so page objects such as LoginPage
+ * use it like any other driver. All contexts share the host's single WebDriver
+ * session, which runs one command at a time: every call on a context driver (and
+ * on the elements, options and navigation objects it returns) takes the host lock
+ * and switches the session to the context's window first. Commands of different
+ * contexts therefore interleave rather than run in parallel. A context's frame
+ * selection does not survive another context's command, and context drivers do
+ * not expose DevTools (PageReadiness falls back to document.readyState).
+ * quit() or close() on a context driver disposes only that context.
+ */
+public class BrowserContextHost {
+
+    private static final Map<String, BrowserContextHost> hosts = new ConcurrentHashMap<>();
+
+    private final String browserName;
+    private final WebDriver host;
+    private final String hostWindow;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Set<String> openContexts = ConcurrentHashMap.newKeySet();
+    // Window the host session is currently switched to; guarded by lock
+    private String activeWindow;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(BrowserContextHost::shutdownAll, "browser-context-shutdown"));
+    }
+
+    private BrowserContextHost(String browserName) {
+        this.browserName = browserName;
+        this.host = DriverManager.createDriver(browserName);
+        if (!(host instanceof HasCdp)) {
+            host.quit();
+            throw new IllegalArgumentException("Browser contexts need a Chromium browser (chrome or edge), not "
+                + browserName);
+        }
+        this.hostWindow = host.getWindowHandle();
+        this.activeWindow = hostWindow;
+    }
+
+    /**
+     * Get (or launch) the shared browser for a browser type
+     */
+    public static BrowserContextHost forBrowser(String browserName) {
+        return hosts.computeIfAbsent(browserName.toLowerCase(), BrowserContextHost::new);
+    }
+
+    /**
+     * Close every host browser with all its contexts
+     */
+    public static synchronized void shutdownAll() {
+        for (BrowserContextHost contextHost : hosts.values()) {
+            contextHost.shutdown();
+        }
+        hosts.clear();
+    }
+
+    /**
+     * Create a new isolated context and return a driver bound to it
+     */
+    public WebDriver newContext() {
+        lock.lock();
+        try {
+            Set<String> before = host.getWindowHandles();
+            Map<String, Object> created = cdp("Target.createBrowserContext",
+                Collections.singletonMap("disposeOnDetach", false));
+            String contextId = (String) created.get("browserContextId");
+            Map<String, Object> params = new HashMap<>();
+            params.put("url", "about:blank");
+            params.put("browserContextId", contextId);
+            String targetId = (String) cdp("Target.createTarget", params).get("targetId");
+            String window = windowFor(targetId, before);
+            openContexts.add(contextId);
+            System.out.println("Created browser context " + contextId + " (" + openContexts.size() + " open)");
+            return (WebDriver) bind(host, new Context(contextId, targetId, window));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of contexts not yet disposed
+     */
+    public int getOpenContexts() {
+        return openContexts.size();
+    }
+
+    /**
+     * Get the browser type of this host
+     */
+    public String getBrowserName() {
+        return browserName;
+    }
+
+    /**
+     * Dispose every context and quit the host browser
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            for (String contextId : new ArrayList<>(openContexts)) {
+                dispose(contextId, null);
+            }
+            host.quit();
+        } catch (WebDriverException e) {
+            System.err.println("Error closing browser context host: " + e.getMessage());
+        } finally {
+            hosts.remove(browserName, this);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * ChromeDriver window handles are DevTools target ids; fall back to the new handle
+     */
+    private String windowFor(String targetId, Set<String> before) {
+        Set<String> after = new LinkedHashSet<>(host.getWindowHandles());
+        for (String handle : after) {
+            if (handle.equals(targetId) || handle.endsWith(targetId)) {
+                return handle;
+            }
+        }
+        after.removeAll(before);
+        if (after.size() != 1) {
+            throw new WebDriverException("Cannot find the window of target " + targetId);
+        }
+        return after.iterator().next();
+    }
+
+    private void dispose(String contextId, String targetId) {
+        if (!openContexts.remove(contextId)) {
+            return;
+        }
+        if (targetId != null) {
+            cdp("Target.closeTarget", Collections.singletonMap("targetId", targetId));
+        }
+        cdp("Target.disposeBrowserContext", Collections.singletonMap("browserContextId", contextId));
+        // The session must not be left on a closed window
+        host.switchTo().window(hostWindow);
+        activeWindow = hostWindow;
+    }
+
+    private Map<String, Object> cdp(String command, Map<String, Object> params) {
+        return ((HasCdp) host).executeCdpCommand(command, params);
+    }
+
+    /**
+     * A context's identity, shared by its driver proxy and everything that proxy returns
+     */
+    private final class Context {
+        final String contextId;
+        final String targetId;
+        final String window;
+        volatile boolean disposed;
+        WebDriver driver;
+
+        Context(String contextId, String targetId, String window) {
+            this.contextId = contextId;
+            this.targetId = targetId;
+            this.window = window;
+        }
+    }
+
+    /**
+     * Proxy a host object (driver, element, options, ...) so that every call runs
+     * under the host lock with the session switched to the context's window
+     */
+    private Object bind(Object target, Context context) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        collectInterfaces(target.getClass(), interfaces);
+        // One DevTools connection per host; it cannot follow context switches
+        interfaces.remove(HasDevTools.class);
+        interfaces.remove(HasCdp.class);
+        Object proxy = Proxy.newProxyInstance(BrowserContextHost.class.getClassLoader(),
+            interfaces.toArray(new Class<?>[0]), new Bound(target, context));
+        if (context.driver == null) {
+            context.driver = (WebDriver) proxy;
+        }
+        return proxy;
+    }
+
+    private static void collectInterfaces(Class<?> type, Set<Class<?>> interfaces) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Class<?> implemented : current.getInterfaces()) {
+                if (interfaces.add(implemented)) {
+                    collectInterfaces(implemented, interfaces);
+                }
+            }
+        }
+    }
+
+    private final class Bound implements InvocationHandler {
+        private final Object target;
+        private final Context context;
+
+        Bound(Object target, Context context) {
+            this.target = target;
+            this.context = context;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return args[0] == proxy;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "BrowserContext(" + context.contextId + ") " + target;
+                case "getWrappedDriver":
+                    return context.driver;
+                default:
+                    break;
+            }
+            if (target == host && ("quit".equals(method.getName()) || "close".equals(method.getName()))) {
+                close();
+                return null;
+            }
+            if (context.disposed) {
+                throw new WebDriverException("Browser context " + context.contextId + " has been closed");
+            }
+            lock.lock();
+            try {
+                if (!context.window.equals(activeWindow)) {
+                    host.switchTo().window(context.window);
+                    activeWindow = context.window;
+                }
+                Object result = method.invoke(target, unwrap(args));
+                return wrap(result, method.getReturnType());
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void close() {
+            lock.lock();
+            try {
+                if (!context.disposed) {
+                    context.disposed = true;
+                    dispose(context.contextId, context.targetId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Proxy returned WebDriver interfaces (elements, options, navigation, ...) so
+         * they keep to this context; values such as cookies and strings pass through
+         */
+        private Object wrap(Object result, Class<?> declared) {
+            if (result == null) {
+                return null;
+            }
+            if (result instanceof List) {
+                List<Object> wrapped = new ArrayList<>();
+                for (Object item : (List<?>) result) {
+                    wrapped.add(item instanceof WebElement ? bind(item, context) : item);
+                }
+                return wrapped;
+            }
+            if (result == host) {
+                return context.driver;
+            }
+            boolean seleniumInterface = declared.isInterface()
+                && declared.getName().startsWith("org.openqa.selenium.");
+            if (result instanceof WebElement || seleniumInterface) {
+                return bind(result, context);
+            }
+            return result;
+        }
+
+        private Object[] unwrap(Object[] args) {
+            if (args == null) {
+                return null;
+            }
+            Object[] unwrapped = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                unwrapped[i] = unwrapValue(args[i]);
+            }
+            return unwrapped;
+        }
+
+        /**
+         * Replace context proxies in a script argument with the real objects, also
+         * inside element wrappers (e.g. ResilientElement), arrays, collections and maps
+         */
+        private Object unwrapValue(Object value) {
+            if (value instanceof Object[]) {
+                Object[] array = (Object[]) value;
+                // Keep the component type, e.g. CharSequence[] for sendKeys; wrappers become plain elements
+                Class<?> component = array.getClass().getComponentType();
+                if (WrapsElement.class.isAssignableFrom(component)) {
+                    component = WebElement.class;
+                }
+                Object[] unwrapped = (Object[]) Array.newInstance(component, array.length);
+                for (int i = 0; i < array.length; i++) {
+                    unwrapped[i] = unwrapValue(array[i]);
+                }
+                return unwrapped;
+            }
+            if (value instanceof Collection) {
+                Collection<Object> unwrapped = value instanceof List ? new ArrayList<>() : new LinkedHashSet<>();
+                for (Object item : (Collection<?>) value) {
+                    unwrapped.add(unwrapValue(item));
+                }
+                return unwrapped;
+            }
+            if (value instanceof Map) {
+                Map<Object, Object> unwrapped = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    unwrapped.put(entry.getKey(), unwrapValue(entry.getValue()));
+                }
+                return unwrapped;
+            }
+            if (value != null && Proxy.isProxyClass(value.getClass())
+                    && Proxy.getInvocationHandler(value) instanceof Bound) {
+                return ((Bound) Proxy.getInvocationHandler(value)).target;
+            }
+            if (value instanceof WrapsElement) {
+                return unwrapValue(((WrapsElement) value).getWrappedElement());
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.kiosk.utils;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every WebDriver and WebElement command and aggregates the timings per
+ * command and per page-object method into latency histograms.
+ *
+ * Only drivers decorated with {@link #listener()} are measured, and
+ * DriverManager only does that when metrics.enabled=true, so disabled metrics
+ * cost nothing. At exit p50/p95/p99 and counts are written to metrics.dir as
+ * JSON and Prometheus text format.
+ */
+public class CommandMetrics implements WebDriverListener {
+
+    private static final String PAGES_PACKAGE = "com.kiosk.pages.";
+    private static final String NO_PAGE = "-";
+    private static final int MAX_DEPTH = 32;
+
+    private static final CommandMetrics instance = new CommandMetrics();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final StackWalker walker = StackWalker.getInstance();
+    private static volatile boolean exportHookInstalled;
+
+    /**
+     * Start times of the commands in flight on one thread; commands can nest
+     * (e.g. a listener-visible call made while decorating a result)
+     */
+    private static class CallStack {
+        final long[] starts = new long[MAX_DEPTH];
+        int depth;
+    }
+
+    private static final ThreadLocal<CallStack> calls = ThreadLocal.withInitial(CallStack::new);
+
+    private CommandMetrics() {
+    }
+
+    /**
+     * Get the listener that times every command of a decorated driver
+     */
+    public static WebDriverListener listener() {
+        installExportHook();
+        return instance;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        CallStack stack = calls.get();
+        if (stack.depth < MAX_DEPTH) {
+            stack.starts[stack.depth] = System.nanoTime();
+        }
+        stack.depth++;
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method, false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method, true);
+    }
+
+    private static void finish(Method method, boolean failed) {
+        long end = System.nanoTime();
+        CallStack stack = calls.get();
+        if (stack.depth == 0) {
+            return;
+        }
+        stack.depth--;
+        if (stack.depth >= MAX_DEPTH) {
+            return;
+        }
+        String command = method.getName() + (failed ? "!error" : "");
+        String key = command + "|" + callingPageMethod();
+        histograms.computeIfAbsent(key, k -> new LatencyHistogram()).record(end - stack.starts[stack.depth]);
+    }
+
+    /**
+     * Find the innermost page-object method on the stack, e.g. "LoginPage.enterUsername"
+     */
+    private static String callingPageMethod() {
+        Optional<String> frame = walker.walk(frames -> frames
+            .filter(f -> f.getClassName().startsWith(PAGES_PACKAGE))
+            .findFirst()
+            .map(f -> f.getClassName().substring(PAGES_PACKAGE.length()) + "." + f.getMethodName()));
+        return frame.orElse(NO_PAGE);
+    }
+
+    /**
+     * Get a snapshot of the histograms keyed by "command|pageMethod"
+     */
+    public static Map<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    /**
+     * Clear all recorded timings
+     */
+    public static void reset() {
+        histograms.clear();
+    }
+
+    /**
+     * Write the recorded timings as JSON and Prometheus text format into the directory
+     */
+    public static void export(File directory) throws IOException {
+        directory.mkdirs();
+        Map<String, LatencyHistogram> snapshot = getHistograms();
+        try (PrintWriter out = new PrintWriter(new File(directory, "webdriver-commands.json"), StandardCharsets.UTF_8)) {
+            out.print(toJson(snapshot));
+        }
+        try (PrintWriter out = new PrintWriter(new File(directory, "webdriver-commands.prom"), StandardCharsets.UTF_8)) {
+            out.print(toPrometheus(snapshot));
+        }
+    }
+
+    /**
+     * Render histograms as a JSON array, one object per command and page method
+     */
+    public static String toJson(Map<String, LatencyHistogram> snapshot) {
+        StringBuilder json = new StringBuilder("[\n");
+        boolean first = true;
+        for (Map.Entry<String, LatencyHistogram> entry : snapshot.entrySet()) {
+            String[] key = entry.getKey().split("\\|", 2);
+            LatencyHistogram h = entry.getValue();
+            if (!first) {
+                json.append(",\n");
+            }
+            first = false;
+            json.append(String.format(
+                "  {\"command\": \"%s\", \"pageMethod\": \"%s\", \"count\": %d, \"totalMs\": %.3f, "
+                    + "\"p50Ms\": %.3f, \"p95Ms\": %.3f, \"p99Ms\": %.3f, \"maxMs\": %.3f}",
+                escape(key[0]), escape(key[1]), h.getCount(), h.getTotalMicros() / 1000.0,
+                h.percentileMicros(50) / 1000.0, h.percentileMicros(95) / 1000.0,
+                h.percentileMicros(99) / 1000.0, h.getMaxMicros() / 1000.0));
+        }
+        return json.append("\n]\n").toString();
+    }
+
+    /**
+     * Render histograms as Prometheus summaries (quantiles in seconds)
+     */
+    public static String toPrometheus(Map<String, LatencyHistogram> snapshot) {
+        StringBuilder prom = new StringBuilder();
+        prom.append("# HELP kiosk_webdriver_command_seconds WebDriver command latency\n");
+        prom.append("# TYPE kiosk_webdriver_command_seconds summary\n");
+        for (Map.Entry<String, LatencyHistogram> entry : snapshot.entrySet()) {
+            String[] key = entry.getKey().split("\\|", 2);
+            LatencyHistogram h = entry.getValue();
+            String labels = "command=\"" + escape(key[0]) + "\",page_method=\"" + escape(key[1]) + "\"";
+            for (int quantile : new int[] {50, 95, 99}) {
+                prom.append(String.format("kiosk_webdriver_command_seconds{%s,quantile=\"0.%d\"} %.6f%n",
+                    labels, quantile, h.percentileMicros(quantile) / 1_000_000.0));
+            }
+            prom.append(String.format("kiosk_webdriver_command_seconds_sum{%s} %.6f%n",
+                labels, h.getTotalMicros() / 1_000_000.0));
+            prom.append(String.format("kiosk_webdriver_command_seconds_count{%s} %d%n", labels, h.getCount()));
+        }
+        return prom.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static synchronized void installExportHook() {
+        if (exportHookInstalled) {
+            return;
+        }
+        exportHookInstalled = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (histograms.isEmpty()) {
+                return;
+            }
+            File directory = new File(ConfigReader.getMetricsDir());
+            try {
+                export(directory);
+                System.out.println("WebDriver command metrics written to " + directory.getAbsolutePath());
+            } catch (IOException e) {
+                System.err.println("Error writing command metrics: " + e.getMessage());
+            }
+        }, "command-metrics-export"));
+    }
+}
@@ -46,17 +46,17 @@ public class ConfigReader {
     }
     
     /**
-     * Get property value by key
+     * Get property value by key; a system property of the same name (-Dkey=value) takes precedence
      */
     public static String getProperty(String key) {
-        return properties.getProperty(key);
+        return System.getProperty(key, properties.getProperty(key));
     }
     
     /**
-     * Get property value with default
+     * Get property value with default; a system property of the same name takes precedence
      */
     public static String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        return System.getProperty(key, properties.getProperty(key, defaultValue));
     }
     
     /**
@@ -100,4 +100,543 @@ public class ConfigReader {
     public static int getTimeout() {
         return Integer.parseInt(getProperty("timeout", "15"));
     }
+    
+    /**
+     * Check if pooled driver sessions are enabled
+     */
+    public static boolean isPoolEnabled() {
+        return Boolean.parseBoolean(getProperty("pool.enabled", "true"));
+    }
+    
+    /**
+     * Get maximum number of live sessions per browser pool
+     */
+    public static int getPoolSize() {
+        return Integer.parseInt(getProperty("pool.size", "2"));
+    }
+    
+    /**
+     * Get number of sessions to pre-warm when a pool is created
+     */
+    public static int getPoolWarmSize() {
+        return Integer.parseInt(getProperty("pool.warm", "1"));
+    }
+    
+    /**
+     * Get idle time (in seconds) after which a pooled session is closed
+     */
+    public static int getPoolIdleTimeout() {
+        return Integer.parseInt(getProperty("pool.idle.timeout", "300"));
+    }
+    
+    /**
+     * Get number of borrows after which a pooled session is retired
+     */
+    public static int getPoolMaxUses() {
+        return Integer.parseInt(getProperty("pool.max.uses", "20"));
+    }
+    
+    /**
+     * Get maximum time (in seconds) to wait for a free pooled session
+     */
+    public static int getPoolBorrowTimeout() {
+        return Integer.parseInt(getProperty("pool.borrow.timeout", "120"));
+    }
+    
+    /**
+     * Get interval (in seconds) between shared driver service health checks
+     */
+    public static int getDriverServiceHealthInterval() {
+        return Integer.parseInt(getProperty("driver.service.health.interval", "30"));
+    }
+    
+    /**
+     * Get path of the manifest that caches resolved driver binaries
+     */
+    public static String getDriverManifestPath() {
+        return getProperty("driver.manifest.path",
+            System.getProperty("user.home") + "/.cache/kiosk-automation/driver-manifest.properties");
+    }
+    
+    /**
+     * Check if authenticated session state may be cached between runs
+     */
+    public static boolean isSessionCacheEnabled() {
+        return Boolean.parseBoolean(getProperty("session.cache.enabled", "true"));
+    }
+    
+    /**
+     * Get lifetime (in minutes) of a cached session state
+     */
+    public static int getSessionCacheTtlMinutes() {
+        return Integer.parseInt(getProperty("session.cache.ttl.minutes", "30"));
+    }
+    
+    /**
+     * Get directory holding cached session state files
+     */
+    public static String getSessionCacheDir() {
+        return getProperty("session.cache.dir",
+            System.getProperty("user.home") + "/.cache/kiosk-automation/sessions");
+    }
+    
+    /**
+     * Check if the protocol login may accept invalid certificates from http.login.insecure.hosts
+     */
+    public static boolean isHttpLoginInsecure() {
+        return Boolean.parseBoolean(getProperty("http.login.insecure", "false"));
+    }
+    
+    /**
+     * Get the comma separated hosts whose certificates are not checked with http.login.insecure=true
+     */
+    public static String getHttpLoginInsecureHosts() {
+        return getProperty("http.login.insecure.hosts", "127.0.0.1,localhost,[::1]");
+    }
+    
+    /**
+     * Get path of the file that persists learned locator strategies
+     */
+    public static String getLocatorRegistryPath() {
+        return getProperty("locator.registry.path",
+            System.getProperty("user.home") + "/.cache/kiosk-automation/locators.properties");
+    }
+    
+    /**
+     * Get element wait engine: "observer" (MutationObserver) or "polling" (WebDriverWait)
+     */
+    public static String getWaitEngine() {
+        return getProperty("wait.engine", "observer");
+    }
+    
+    /**
+     * Get page readiness mode: "network-idle", "fcp" or "ready-state"
+     */
+    public static String getPageReadyMode() {
+        return getProperty("page.ready.mode", "network-idle");
+    }
+    
+    /**
+     * Get quiet period (in milliseconds) without network requests that counts as idle
+     */
+    public static int getPageReadyQuietMillis() {
+        return Integer.parseInt(getProperty("page.ready.quiet.ms", "500"));
+    }
+    
+    /**
+     * Check if fixed post-action sleeps are replaced by learned condition waits
+     */
+    public static boolean isAdaptiveWaitEnabled() {
+        return Boolean.parseBoolean(getProperty("adaptive.wait.enabled", "true"));
+    }
+    
+    /**
+     * Get path of the file holding observed post-action wait durations
+     */
+    public static String getAdaptiveWaitHistoryPath() {
+        return getProperty("adaptive.wait.history.path",
+            System.getProperty("user.home") + "/.cache/kiosk-automation/wait-history.properties");
+    }
+    
+    /**
+     * Get percentile of observed durations used as the base of a step's budget
+     */
+    public static double getAdaptiveWaitPercentile() {
+        return Double.parseDouble(getProperty("adaptive.wait.percentile", "99"));
+    }
+    
+    /**
+     * Get safety multiplier applied to the percentile
+     */
+    public static double getAdaptiveWaitMultiplier() {
+        return Double.parseDouble(getProperty("adaptive.wait.multiplier", "1.5"));
+    }
+    
+    /**
+     * Get number of samples a step needs before its budget is learned
+     */
+    public static int getAdaptiveWaitMinSamples() {
+        return Integer.parseInt(getProperty("adaptive.wait.min.samples", "5"));
+    }
+    
+    /**
+     * Get how long (in seconds) a headed browser stays open after the runner finishes
+     */
+    public static int getKeepOpenSeconds() {
+        return Integer.parseInt(getProperty("browser.keep.open.seconds", "10"));
+    }
+    
+    /**
+     * Get implicit wait (in seconds); only applied when implicit waits are enabled
+     */
+    public static int getImplicitWait() {
+        return Integer.parseInt(getProperty("implicit.wait", "0"));
+    }
+    
+    /**
+     * Check if the implicit wait should be applied to drivers (off by default)
+     */
+    public static boolean isImplicitWaitEnabled() {
+        return Boolean.parseBoolean(getProperty("wait.implicit.enabled", "false"));
+    }
+    
+    /**
+     * Get page load timeout (in seconds)
+     */
+    public static int getPageLoadTimeout() {
+        return Integer.parseInt(getProperty("page.load.timeout", "30"));
+    }
+    
+    /**
+     * Get first polling delay (in milliseconds) of explicit waits
+     */
+    public static long getWaitPollInitialMillis() {
+        return Long.parseLong(getProperty("wait.poll.initial.ms", "50"));
+    }
+    
+    /**
+     * Get largest polling delay (in milliseconds) of explicit waits
+     */
+    public static long getWaitPollMaxMillis() {
+        return Long.parseLong(getProperty("wait.poll.max.ms", "500"));
+    }
+    
+    /**
+     * Get total waiting budget (in seconds) for one run; 0 means unlimited
+     */
+    public static int getRunDeadlineSeconds() {
+        return Integer.parseInt(getProperty("run.deadline.seconds", "0"));
+    }
+    
+    /**
+     * Check if per-command WebDriver latency metrics are collected
+     */
+    public static boolean isMetricsEnabled() {
+        return Boolean.parseBoolean(getProperty("metrics.enabled", "false"));
+    }
+    
+    /**
+     * Get directory the command metrics are written to at exit
+     */
+    public static String getMetricsDir() {
+        return getProperty("metrics.dir", "target/metrics");
+    }
+    
+    /**
+     * Check if step tracing (Chrome trace-event export) is on
+     */
+    public static boolean isTraceEnabled() {
+        return Boolean.parseBoolean(getProperty("trace.enabled", "false"));
+    }
+    
+    /**
+     * Get number of trace events kept in the ring buffer
+     */
+    public static int getTraceBufferSize() {
+        return Integer.parseInt(getProperty("trace.buffer.size", "65536"));
+    }
+    
+    /**
+     * Get file the trace is written to at exit
+     */
+    public static String getTraceFile() {
+        return getProperty("trace.file", "target/trace/kiosk-trace.json");
+    }
+    
+    /**
+     * Check if the test suite should start the local stand-in kiosk server
+     */
+    public static boolean isStandInEnabled() {
+        return Boolean.parseBoolean(getProperty("standin.enabled", "false"));
+    }
+    
+    /**
+     * Get stand-in server port (0 picks a free port)
+     */
+    public static int getStandInPort() {
+        return Integer.parseInt(getProperty("standin.port", "0"));
+    }
+    
+    /**
+     * Check if the stand-in server uses HTTPS with a generated self-signed certificate
+     */
+    public static boolean isStandInTls() {
+        return Boolean.parseBoolean(getProperty("standin.tls", "false"));
+    }
+    
+    /**
+     * Get stand-in server base latency added to every response (in milliseconds)
+     */
+    public static long getStandInLatencyMillis() {
+        return Long.parseLong(getProperty("standin.latency.ms", "0"));
+    }
+    
+    /**
+     * Get stand-in server random jitter around the base latency (in milliseconds)
+     */
+    public static long getStandInJitterMillis() {
+        return Long.parseLong(getProperty("standin.jitter.ms", "0"));
+    }
+    
+    /**
+     * Get extra delay of the stand-in post-login XHR (in milliseconds)
+     */
+    public static long getStandInSlowXhrMillis() {
+        return Long.parseLong(getProperty("standin.slow.xhr.ms", "0"));
+    }
+    
+    /**
+     * Get fraction (0.0-1.0) of stand-in responses that fail with HTTP 503
+     */
+    public static double getStandInErrorRate() {
+        return Double.parseDouble(getProperty("standin.error.rate", "0"));
+    }
+    
+    /**
+     * Get number of measured iterations per benchmark combination
+     */
+    public static int getBenchmarkIterations() {
+        return Integer.parseInt(getProperty("benchmark.iterations", "10"));
+    }
+    
+    /**
+     * Get number of discarded warm-up iterations per benchmark combination
+     */
+    public static int getBenchmarkWarmup() {
+        return Integer.parseInt(getProperty("benchmark.warmup", "1"));
+    }
+    
+    /**
+     * Get comma-separated browsers to benchmark
+     */
+    public static String getBenchmarkBrowsers() {
+        return getProperty("benchmark.browsers", "chrome,firefox,edge");
+    }
+    
+    /**
+     * Get comma-separated display modes to benchmark (headless, xvfb)
+     */
+    public static String getBenchmarkModes() {
+        return getProperty("benchmark.modes", "headless,xvfb");
+    }
+    
+    /**
+     * Get comma-separated login variants to benchmark (ui, cached-session, http)
+     */
+    public static String getBenchmarkVariants() {
+        return getProperty("benchmark.variants", "ui");
+    }
+    
+    /**
+     * Get path of the stored benchmark baseline
+     */
+    public static String getBenchmarkBaselinePath() {
+        return getProperty("benchmark.baseline", "benchmarks/login-flow-baseline.json");
+    }
+    
+    /**
+     * Get path the benchmark results are written to
+     */
+    public static String getBenchmarkOutputPath() {
+        return getProperty("benchmark.output", "target/benchmark/login-flow.json");
+    }
+    
+    /**
+     * Get relative slowdown beyond which a benchmark metric counts as a regression
+     */
+    public static double getBenchmarkRegressionThreshold() {
+        return Double.parseDouble(getProperty("benchmark.regression.threshold", "0.10"));
+    }
+    
+    /**
+     * Check if the benchmark results should replace the stored baseline
+     */
+    public static boolean isBenchmarkSaveBaseline() {
+        return Boolean.parseBoolean(getProperty("benchmark.save.baseline", "false"));
+    }
+    
+    /**
+     * Get timeout for one benchmark iteration (in seconds)
+     */
+    public static int getBenchmarkTrialTimeoutSeconds() {
+        return Integer.parseInt(getProperty("benchmark.trial.timeout.seconds", "180"));
+    }
+    
+    /**
+     * Get number of TestNG threads; 1 runs the suite serially
+     */
+    public static int getParallelThreads() {
+        return Integer.parseInt(getProperty("parallel.threads", "1"));
+    }
+    
+    /**
+     * Get TestNG parallel mode: "methods" or "classes"
+     */
+    public static String getParallelMode() {
+        return getProperty("parallel.mode", "methods");
+    }
+    
+    /**
+     * Get path of the per-test duration history used to order parallel runs
+     */
+    public static String getTestDurationHistoryPath() {
+        return getProperty("test.duration.history.path",
+            System.getProperty("user.home") + "/.cache/kiosk-automation/test-durations.properties");
+    }
+    
+    /**
+     * Get comma-separated session counts for the browser-context benchmark
+     */
+    public static String getBenchmarkContextSessions() {
+        return getProperty("benchmark.contexts.sessions", "1,2,4,8");
+    }
+    
+    /**
+     * Get path the browser-context benchmark results are written to
+     */
+    public static String getBenchmarkContextsOutputPath() {
+        return getProperty("benchmark.contexts.output", "target/benchmark/browser-contexts.json");
+    }
+    
+    /**
+     * Get file listing the fleet targets, one "url,username,credentialRef[,name]" per line
+     */
+    public static String getFleetTargetsFile() {
+        return getProperty("fleet.targets.file", "fleet-targets.csv");
+    }
+    
+    /**
+     * Get maximum number of concurrent browser sessions in a fleet sweep
+     */
+    public static int getFleetConcurrency() {
+        return Integer.parseInt(getProperty("fleet.concurrency", "4"));
+    }
+    
+    /**
+     * Get deadline for checking one fleet target (in seconds)
+     */
+    public static int getFleetTargetTimeoutSeconds() {
+        return Integer.parseInt(getProperty("fleet.target.timeout.seconds", "120"));
+    }
+    
+    /**
+     * Get fleet session mode: "pool" (pooled browsers) or "context" (browser contexts in one browser)
+     */
+    public static String getFleetSessionMode() {
+        return getProperty("fleet.session.mode", "pool");
+    }
+    
+    /**
+     * Get path the aggregated fleet results are written to
+     */
+    public static String getFleetOutputPath() {
+        return getProperty("fleet.output", "target/fleet/fleet-results.json");
+    }
+    
+    /**
+     * Check whether KioskAutomationRunner starts as a resident daemon
+     */
+    public static boolean isDaemonEnabled() {
+        return Boolean.parseBoolean(getProperty("daemon.enabled", "false"));
+    }
+    
+    /**
+     * Get the daemon's cron schedule (minute hour day month weekday)
+     */
+    public static String getDaemonSchedule() {
+        return getProperty("daemon.schedule", "*/15 * * * *");
+    }
+    
+    /**
+     * Check whether the daemon runs the flow once as soon as it starts
+     */
+    public static boolean isDaemonRunOnStart() {
+        return Boolean.parseBoolean(getProperty("daemon.run.on.start", "true"));
+    }
+    
+    /**
+     * Check whether the daemon keeps a warm browser session between runs
+     */
+    public static boolean isDaemonKeepBrowser() {
+        return Boolean.parseBoolean(getProperty("daemon.keep.browser", "true"));
+    }
+    
+    /**
+     * Get the file the daemon writes its last-run status to
+     */
+    public static String getDaemonStatusFile() {
+        return getProperty("daemon.status.file", "target/daemon/status.json");
+    }
+    
+    /**
+     * Get the loopback port of the daemon's status endpoint (0 disables it)
+     */
+    public static int getDaemonHttpPort() {
+        return Integer.parseInt(getProperty("daemon.http.port", "0"));
+    }
+    
+    /**
+     * Check whether start-up probes the kiosk host (DNS, TCP, TLS) before navigating
+     */
+    public static boolean isProbeEnabled() {
+        return Boolean.parseBoolean(getProperty("probe.enabled", "true"));
+    }
+    
+    /**
+     * Get the timeout (in milliseconds) of each step of the kiosk probe
+     */
+    public static int getProbeTimeoutMillis() {
+        return Integer.parseInt(getProperty("probe.timeout.ms", "5000"));
+    }
+    
+    /**
+     * Check whether runs are skipped while the kiosk is known to be down
+     */
+    public static boolean isBreakerEnabled() {
+        return Boolean.parseBoolean(getProperty("breaker.enabled", "true"));
+    }
+    
+    /**
+     * Get the file the kiosk circuit breakers are kept in between runs
+     */
+    public static String getBreakerStateFile() {
+        return getProperty("breaker.state.file",
+            System.getProperty("user.home") + "/.cache/kiosk-automation/kiosk-breaker.properties");
+    }
+    
+    /**
+     * Get the back-off (in seconds) after the first failed probe
+     */
+    public static int getBreakerInitialBackoffSeconds() {
+        return Integer.parseInt(getProperty("breaker.backoff.initial.seconds", "60"));
+    }
+    
+    /**
+     * Get the longest back-off (in seconds) between probes of a kiosk that is down
+     */
+    public static int getBreakerMaxBackoffSeconds() {
+        return Integer.parseInt(getProperty("breaker.backoff.max.seconds", "3600"));
+    }
+    
+    /**
+     * Get the number of browser recoveries a flow may make per run
+     */
+    public static int getFlowRetryBudget() {
+        return Integer.parseInt(getProperty("flow.retry.budget", "2"));
+    }
+    
+    /**
+     * Get the directory flow checkpoints are saved in between runs
+     */
+    public static String getFlowCheckpointDir() {
+        return getProperty("flow.checkpoint.dir",
+            System.getProperty("user.home") + "/.cache/kiosk-automation/flow-checkpoints");
+    }
+    
+    /**
+     * Get the age (in seconds) up to which a new run resumes from a saved checkpoint (0 disables)
+     */
+    public static int getFlowCheckpointMaxAgeSeconds() {
+        return Integer.parseInt(getProperty("flow.checkpoint.max.age.seconds", "600"));
+    }
 }
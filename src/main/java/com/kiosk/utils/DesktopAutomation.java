@@ -11,6 +11,7 @@ import java.io.IOException;
 /**
  * Desktop Automation utility class for keyboard and mouse automation.
  * Uses Java Robot class for desktop automation tasks.
+ * Actions are recorded as trace spans when tracing is enabled.
  */
 public class DesktopAutomation {
     
@@ -26,26 +27,30 @@ public class DesktopAutomation {
      * Type text using keyboard simulation
      */
     public void typeText(String text) {
-        StringSelection stringSelection = new StringSelection(text);
-        Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-        clipboard.setContents(stringSelection, null);
+        try (Tracer.Span span = Tracer.span("DesktopAutomation.typeText")) {
+            StringSelection stringSelection = new StringSelection(text);
+            Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
+            clipboard.setContents(stringSelection, null);
         
-        // Use Ctrl+V to paste
-        robot.keyPress(KeyEvent.VK_CONTROL);
-        robot.keyPress(KeyEvent.VK_V);
-        robot.keyRelease(KeyEvent.VK_V);
-        robot.keyRelease(KeyEvent.VK_CONTROL);
+            // Use Ctrl+V to paste
+            robot.keyPress(KeyEvent.VK_CONTROL);
+            robot.keyPress(KeyEvent.VK_V);
+            robot.keyRelease(KeyEvent.VK_V);
+            robot.keyRelease(KeyEvent.VK_CONTROL);
         
-        delay(200);
+            delay(200);
+        }
     }
     
     /**
      * Type text character by character (slower but more reliable)
      */
     public void typeTextSlow(String text) {
-        for (char c : text.toCharArray()) {
-            typeChar(c);
-            delay(50);
+        try (Tracer.Span span = Tracer.span("DesktopAutomation.typeTextSlow")) {
+            for (char c : text.toCharArray()) {
+                typeChar(c);
+                delay(50);
+            }
         }
     }
     
@@ -99,36 +104,42 @@ public class DesktopAutomation {
      * Click at specific screen coordinates
      */
     public void click(int x, int y) {
-        robot.mouseMove(x, y);
-        delay(100);
-        robot.mousePress(InputEvent.BUTTON1_DOWN_MASK);
-        robot.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
-        delay(200);
+        try (Tracer.Span span = Tracer.span("DesktopAutomation.click")) {
+            robot.mouseMove(x, y);
+            delay(100);
+            robot.mousePress(InputEvent.BUTTON1_DOWN_MASK);
+            robot.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
+            delay(200);
+        }
     }
     
     /**
      * Double click at specific screen coordinates
      */
     public void doubleClick(int x, int y) {
-        robot.mouseMove(x, y);
-        delay(100);
-        robot.mousePress(InputEvent.BUTTON1_DOWN_MASK);
-        robot.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
-        delay(50);
-        robot.mousePress(InputEvent.BUTTON1_DOWN_MASK);
-        robot.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
-        delay(200);
+        try (Tracer.Span span = Tracer.span("DesktopAutomation.doubleClick")) {
+            robot.mouseMove(x, y);
+            delay(100);
+            robot.mousePress(InputEvent.BUTTON1_DOWN_MASK);
+            robot.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
+            delay(50);
+            robot.mousePress(InputEvent.BUTTON1_DOWN_MASK);
+            robot.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
+            delay(200);
+        }
     }
     
     /**
      * Right click at specific screen coordinates
      */
     public void rightClick(int x, int y) {
-        robot.mouseMove(x, y);
-        delay(100);
-        robot.mousePress(InputEvent.BUTTON3_DOWN_MASK);
-        robot.mouseRelease(InputEvent.BUTTON3_DOWN_MASK);
-        delay(200);
+        try (Tracer.Span span = Tracer.span("DesktopAutomation.rightClick")) {
+            robot.mouseMove(x, y);
+            delay(100);
+            robot.mousePress(InputEvent.BUTTON3_DOWN_MASK);
+            robot.mouseRelease(InputEvent.BUTTON3_DOWN_MASK);
+            delay(200);
+        }
     }
     
     /**
@@ -151,23 +162,27 @@ public class DesktopAutomation {
      * Press key combination (e.g., Ctrl+C, Alt+Tab)
      */
     public void keyPress(int... keyCodes) {
-        for (int keyCode : keyCodes) {
-            robot.keyPress(keyCode);
+        try (Tracer.Span span = Tracer.span("DesktopAutomation.keyPress")) {
+            for (int keyCode : keyCodes) {
+                robot.keyPress(keyCode);
+            }
+            delay(100);
+            for (int keyCode : keyCodes) {
+                robot.keyRelease(keyCode);
+            }
+            delay(200);
         }
-        delay(100);
-        for (int keyCode : keyCodes) {
-            robot.keyRelease(keyCode);
-        }
-        delay(200);
     }
     
     /**
      * Take screenshot of entire screen
      */
     public void captureScreen(String filePath) throws IOException {
-        Rectangle screenRect = new Rectangle(Toolkit.getDefaultToolkit().getScreenSize());
-        java.awt.image.BufferedImage capture = robot.createScreenCapture(screenRect);
-        javax.imageio.ImageIO.write(capture, "png", new File(filePath));
+        try (Tracer.Span span = Tracer.span("DesktopAutomation.captureScreen")) {
+            Rectangle screenRect = new Rectangle(Toolkit.getDefaultToolkit().getScreenSize());
+            java.awt.image.BufferedImage capture = robot.createScreenCapture(screenRect);
+            javax.imageio.ImageIO.write(capture, "png", new File(filePath));
+        }
     }
     
     /**
@@ -180,7 +195,7 @@ public class DesktopAutomation {
     /**
      * Get key code for character
      */
-    private int getKeyCode(char character) {
+    static int getKeyCode(char character) {
         switch (character) {
             case 'a': case 'A': return KeyEvent.VK_A;
             case 'b': case 'B': return KeyEvent.VK_B;
@@ -229,29 +244,35 @@ public class DesktopAutomation {
      * Open application using Windows Run dialog (Win+R)
      */
     public void openApplication(String appName) {
-        keyPress(KeyEvent.VK_WINDOWS, KeyEvent.VK_R);
-        delay(500);
-        typeText(appName);
-        delay(300);
-        pressEnter();
-        delay(1000);
+        try (Tracer.Span span = Tracer.span("DesktopAutomation.openApplication")) {
+            keyPress(KeyEvent.VK_WINDOWS, KeyEvent.VK_R);
+            delay(500);
+            typeText(appName);
+            delay(300);
+            pressEnter();
+            delay(1000);
+        }
     }
     
     /**
      * Switch to window using Alt+Tab
      */
     public void switchWindow() {
-        keyPress(KeyEvent.VK_ALT, KeyEvent.VK_TAB);
-        delay(500);
-        robot.keyRelease(KeyEvent.VK_ALT);
+        try (Tracer.Span span = Tracer.span("DesktopAutomation.switchWindow")) {
+            keyPress(KeyEvent.VK_ALT, KeyEvent.VK_TAB);
+            delay(500);
+            robot.keyRelease(KeyEvent.VK_ALT);
+        }
     }
     
     /**
      * Close current window (Alt+F4)
      */
     public void closeWindow() {
-        keyPress(KeyEvent.VK_ALT, KeyEvent.VK_F4);
-        delay(500);
+        try (Tracer.Span span = Tracer.span("DesktopAutomation.closeWindow")) {
+            keyPress(KeyEvent.VK_ALT, KeyEvent.VK_F4);
+            delay(500);
+        }
     }
     
     /**
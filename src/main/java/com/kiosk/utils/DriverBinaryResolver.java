@@ -0,0 +1,167 @@
+package com.kiosk.utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves browser driver binaries once and remembers them in a local manifest,
+ * so later launches skip WebDriverManager's version lookup entirely.
+ *
+ * An entry stays valid while its driver binary exists and the installed browser
+ * binary is unchanged (same path, size and modification time). A browser update
+ * changes that fingerprint and triggers one fresh WebDriverManager resolution.
+ * If that resolution fails (e.g. no network), the last known driver is reused.
+ */
+public class DriverBinaryResolver {
+
+    private static final Map<String, String> resolved = new ConcurrentHashMap<>();
+    private static Properties manifest;
+
+    /**
+     * Make the driver binary for a browser available to Selenium
+     */
+    public static synchronized void resolve(String browserName) {
+        String browser = normalize(browserName);
+        if (resolved.containsKey(browser)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        Properties entries = loadManifest();
+        String driverPath = entries.getProperty(browser + ".driver.path");
+        String browserPath = entries.getProperty(browser + ".browser.path");
+        String fingerprint = entries.getProperty(browser + ".browser.fingerprint");
+
+        if (driverPath != null && new File(driverPath).isFile()
+                && fingerprint != null && fingerprint.equals(fingerprint(browserPath))) {
+            useDriver(browser, driverPath);
+            long savedMillis = Long.parseLong(entries.getProperty(browser + ".setup.millis", "0"));
+            System.out.println(String.format(
+                "Resolved %s driver from manifest in %dus (saved ~%dms of driver setup)",
+                browser, (System.nanoTime() - start) / 1000, savedMillis));
+            return;
+        }
+
+        try {
+            WebDriverManager manager = managerFor(browser);
+            manager.setup();
+            long setupMillis = (System.nanoTime() - start) / 1_000_000;
+
+            Optional<Path> detectedBrowser = manager.getBrowserPath();
+            String newBrowserPath = detectedBrowser.map(Path::toString).orElse("");
+            entries.setProperty(browser + ".driver.path", manager.getDownloadedDriverPath());
+            entries.setProperty(browser + ".driver.version", String.valueOf(manager.getDownloadedDriverVersion()));
+            entries.setProperty(browser + ".browser.path", newBrowserPath);
+            entries.setProperty(browser + ".browser.fingerprint", fingerprint(newBrowserPath));
+            entries.setProperty(browser + ".setup.millis", String.valueOf(setupMillis));
+            saveManifest(entries);
+
+            resolved.put(browser, manager.getDownloadedDriverPath());
+            System.out.println("Resolved " + browser + " driver with WebDriverManager in " + setupMillis + "ms");
+        } catch (RuntimeException e) {
+            if (driverPath != null && new File(driverPath).isFile()) {
+                System.err.println("Driver resolution failed (" + e.getMessage() + "), using cached "
+                    + browser + " driver " + driverPath);
+                useDriver(browser, driverPath);
+                return;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Forget the cached driver for a browser so the next launch resolves it again
+     */
+    public static synchronized void invalidate(String browserName) {
+        String browser = normalize(browserName);
+        resolved.remove(browser);
+        Properties entries = loadManifest();
+        entries.remove(browser + ".browser.fingerprint");
+        saveManifest(entries);
+    }
+
+    private static void useDriver(String browser, String driverPath) {
+        System.setProperty(driverProperty(browser), driverPath);
+        resolved.put(browser, driverPath);
+    }
+
+    private static String normalize(String browserName) {
+        String browser = browserName.toLowerCase();
+        return browser.equals("firefox") || browser.equals("edge") ? browser : "chrome";
+    }
+
+    private static WebDriverManager managerFor(String browser) {
+        switch (browser) {
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            case "edge":
+                return WebDriverManager.edgedriver();
+            default:
+                return WebDriverManager.chromedriver();
+        }
+    }
+
+    private static String driverProperty(String browser) {
+        switch (browser) {
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            default:
+                return "webdriver.chrome.driver";
+        }
+    }
+
+    /**
+     * Cheap stand-in for the installed browser version
+     */
+    private static String fingerprint(String browserPath) {
+        if (browserPath == null || browserPath.isEmpty()) {
+            return "unknown";
+        }
+        File file = new File(browserPath);
+        if (!file.exists()) {
+            return "missing";
+        }
+        return browserPath + "|" + file.length() + "|" + file.lastModified();
+    }
+
+    private static Properties loadManifest() {
+        if (manifest == null) {
+            manifest = new Properties();
+            File file = new File(ConfigReader.getDriverManifestPath());
+            if (file.isFile()) {
+                try (InputStream in = new FileInputStream(file)) {
+                    manifest.load(in);
+                } catch (IOException e) {
+                    System.err.println("Error reading driver manifest: " + e.getMessage());
+                }
+            }
+        }
+        return manifest;
+    }
+
+    private static void saveManifest(Properties entries) {
+        File file = new File(ConfigReader.getDriverManifestPath());
+        File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            entries.store(out, "Resolved browser driver binaries");
+        } catch (IOException e) {
+            System.err.println("Error writing driver manifest: " + e.getMessage());
+        }
+    }
+}
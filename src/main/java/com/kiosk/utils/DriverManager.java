@@ -1,6 +1,6 @@
 package com.kiosk.utils;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
@@ -8,8 +8,11 @@ import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Driver Manager class to handle WebDriver initialization and configuration.
@@ -23,6 +26,106 @@ public class DriverManager {
      * Initialize WebDriver based on browser type
      */
     public static WebDriver initializeDriver(String browserName) {
+        WebDriver webDriver = createDriver(browserName);
+        driver.set(webDriver);
+        return webDriver;
+    }
+    
+    /**
+     * Bind a driver created on another thread (see StartupPipeline) to this thread
+     */
+    public static WebDriver bindDriver(WebDriver webDriver) {
+        driver.set(webDriver);
+        return webDriver;
+    }
+    
+    /**
+     * Borrow a warm session from the browser's pool and bind it to this thread.
+     * Falls back to a fresh driver when pooling is disabled.
+     */
+    public static WebDriver borrowDriver(String browserName) {
+        if (!ConfigReader.isPoolEnabled()) {
+            return initializeDriver(browserName);
+        }
+        WebDriver webDriver = DriverPool.forBrowser(browserName).borrow();
+        driver.set(webDriver);
+        return webDriver;
+    }
+    
+    /**
+     * Open an isolated browser context (own cookies and storage) in the shared
+     * browser for this type and bind it to this thread. Far lighter than a browser
+     * per session, but its commands share one WebDriver session; Chromium only.
+     * quitDriver() disposes just the context.
+     */
+    public static WebDriver initializeContextDriver(String browserName) {
+        WebDriver webDriver = BrowserContextHost.forBrowser(browserName).newContext();
+        driver.set(webDriver);
+        return webDriver;
+    }
+    
+    /**
+     * Return this thread's driver to its pool, or quit it if it is not pooled
+     */
+    public static void releaseDriver() {
+        WebDriver webDriver = driver.get();
+        if (webDriver == null) {
+            return;
+        }
+        driver.remove();
+        DriverPool pool = DriverPool.ownerOf(webDriver);
+        if (pool != null) {
+            pool.release(webDriver);
+        } else {
+            webDriver.quit();
+        }
+    }
+    
+    /**
+     * Create and configure a new WebDriver without binding it to the current thread
+     */
+    public static WebDriver createDriver(String browserName) {
+        WebDriver webDriver;
+        try {
+            webDriver = launchBrowser(browserName);
+        } catch (SessionNotCreatedException e) {
+            // Usually a browser update that the cached driver binary does not support
+            System.err.println("Session not created, re-resolving driver: " + e.getMessage());
+            DriverBinaryResolver.invalidate(browserName);
+            DriverServiceManager.discard(browserName);
+            webDriver = launchBrowser(browserName);
+        }
+        
+        // Common driver settings
+        webDriver.manage().window().maximize();
+        webDriver.manage().timeouts().implicitlyWait(WaitPolicy.implicitWait());
+        webDriver.manage().timeouts().pageLoadTimeout(WaitPolicy.pageLoadTimeout());
+        
+        return instrument(webDriver);
+    }
+    
+    /**
+     * Decorate the driver with the command listeners that are switched on.
+     * Undecorated when none are, so disabled instrumentation adds no per-command cost.
+     */
+    private static WebDriver instrument(WebDriver webDriver) {
+        List<WebDriverListener> listeners = new ArrayList<>();
+        if (ConfigReader.isMetricsEnabled()) {
+            listeners.add(CommandMetrics.listener());
+        }
+        if (Tracer.isEnabled()) {
+            listeners.add(Tracer.listener());
+        }
+        if (listeners.isEmpty()) {
+            return webDriver;
+        }
+        return new EventFiringDecorator<>(listeners.toArray(new WebDriverListener[0])).decorate(webDriver);
+    }
+    
+    /**
+     * Start a browser session for the given browser type
+     */
+    private static WebDriver launchBrowser(String browserName) {
         WebDriver webDriver = null;
         
         switch (browserName.toLowerCase()) {
@@ -39,12 +142,6 @@ public class DriverManager {
                 webDriver = createChromeDriver();
         }
         
-        // Common driver settings
-        webDriver.manage().window().maximize();
-        webDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        webDriver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-        
-        driver.set(webDriver);
         return webDriver;
     }
     
@@ -52,7 +149,14 @@ public class DriverManager {
      * Create Chrome driver with options
      */
     private static WebDriver createChromeDriver() {
-        WebDriverManager.chromedriver().setup();
+        DriverBinaryResolver.resolve("chrome");
+        return new ChromeDriver(DriverServiceManager.getChromeService(), chromeOptions());
+    }
+    
+    /**
+     * Build Chrome options for kiosk automation
+     */
+    static ChromeOptions chromeOptions() {
         ChromeOptions options = new ChromeOptions();
         
         // Add options for kiosk automation
@@ -75,33 +179,47 @@ public class DriverManager {
         options.setExperimentalOption("useAutomationExtension", false);
         options.setAcceptInsecureCerts(true);
         
-        return new ChromeDriver(options);
+        return options;
     }
     
     /**
      * Create Firefox driver with options
      */
     private static WebDriver createFirefoxDriver() {
-        WebDriverManager.firefoxdriver().setup();
+        DriverBinaryResolver.resolve("firefox");
+        return new FirefoxDriver(DriverServiceManager.getGeckoService(), firefoxOptions());
+    }
+    
+    /**
+     * Build Firefox options for kiosk automation
+     */
+    static FirefoxOptions firefoxOptions() {
         FirefoxOptions options = new FirefoxOptions();
         options.setAcceptInsecureCerts(true);
         if (ConfigReader.isHeadless()) {
             options.addArguments("--headless");
         }
-        return new FirefoxDriver(options);
+        return options;
     }
     
     /**
      * Create Edge driver with options
      */
     private static WebDriver createEdgeDriver() {
-        WebDriverManager.edgedriver().setup();
+        DriverBinaryResolver.resolve("edge");
+        return new EdgeDriver(DriverServiceManager.getEdgeService(), edgeOptions());
+    }
+    
+    /**
+     * Build Edge options for kiosk automation
+     */
+    static EdgeOptions edgeOptions() {
         EdgeOptions options = new EdgeOptions();
         options.setAcceptInsecureCerts(true);
         if (ConfigReader.isHeadless()) {
             options.addArguments("--headless");
         }
-        return new EdgeDriver(options);
+        return options;
     }
     
     /**
@@ -116,7 +234,12 @@ public class DriverManager {
      */
     public static void quitDriver() {
         if (driver.get() != null) {
-            driver.get().quit();
+            DriverPool pool = DriverPool.ownerOf(driver.get());
+            if (pool != null) {
+                pool.invalidate(driver.get());
+            } else {
+                driver.get().quit();
+            }
             driver.remove();
         }
     }
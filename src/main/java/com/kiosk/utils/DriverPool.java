@@ -0,0 +1,421 @@
+package com.kiosk.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of pre-warmed WebDriver sessions for one browser type.
+ * Sessions are reset (cookies, storage, extra tabs) when returned and are
+ * retired after a configurable idle time or number of uses. At most pool.size
+ * browsers run at once, counting idle, borrowed and starting sessions.
+ */
+public class DriverPool {
+
+    private static final Map<String, DriverPool> pools = new ConcurrentHashMap<>();
+
+    private final String browserName;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final int maxUses;
+    private final long borrowTimeoutMillis;
+    private final Supplier<WebDriver> driverFactory;
+
+    private final Semaphore permits;
+    // Sessions started or starting and not yet quit; guarded by liveLock
+    private final Object liveLock = new Object();
+    private int live;
+    private final LinkedBlockingDeque<PooledSession> idle = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledSession> borrowed =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+    private final ScheduledExecutorService reaper;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong retired = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Session held by the pool together with its bookkeeping
+     */
+    private static class PooledSession {
+        final WebDriver driver;
+        int uses;
+        long lastReleased;
+
+        PooledSession(WebDriver driver) {
+            this.driver = driver;
+            this.lastReleased = System.currentTimeMillis();
+        }
+    }
+
+    DriverPool(String browserName, int maxSize, long idleTimeoutMillis, int maxUses, long borrowTimeoutMillis) {
+        this(browserName, maxSize, idleTimeoutMillis, maxUses, borrowTimeoutMillis,
+            () -> DriverManager.createDriver(browserName));
+    }
+
+    /**
+     * Create a pool that starts its sessions with driverFactory. Such a pool is
+     * not registered for forBrowser or ownerOf.
+     */
+    public DriverPool(String browserName, int maxSize, long idleTimeoutMillis, int maxUses, long borrowTimeoutMillis,
+                      Supplier<WebDriver> driverFactory) {
+        this.browserName = browserName;
+        this.maxSize = Math.max(1, maxSize);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxUses = Math.max(1, maxUses);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.driverFactory = driverFactory;
+        this.permits = new Semaphore(this.maxSize, true);
+        this.reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "driver-pool-reaper-" + browserName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        reaper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get (or create and pre-warm) the pool for a browser type
+     */
+    public static DriverPool forBrowser(String browserName) {
+        String key = browserName.toLowerCase();
+        return pools.computeIfAbsent(key, name -> {
+            DriverPool pool = new DriverPool(
+                name,
+                ConfigReader.getPoolSize(),
+                TimeUnit.SECONDS.toMillis(ConfigReader.getPoolIdleTimeout()),
+                ConfigReader.getPoolMaxUses(),
+                TimeUnit.SECONDS.toMillis(ConfigReader.getPoolBorrowTimeout())
+            );
+            pool.warmUp(ConfigReader.getPoolWarmSize());
+            return pool;
+        });
+    }
+
+    /**
+     * Find the pool that lent out the given driver, or null if it is not pooled
+     */
+    static DriverPool ownerOf(WebDriver webDriver) {
+        for (DriverPool pool : pools.values()) {
+            if (pool.borrowed.containsKey(webDriver)) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Close every pool and print its statistics
+     */
+    public static synchronized void shutdownAll() {
+        for (DriverPool pool : pools.values()) {
+            pool.shutdown();
+        }
+        pools.clear();
+    }
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::shutdownAll, "driver-pool-shutdown"));
+    }
+
+    /**
+     * Start sessions in the background so the first borrows are pool hits
+     */
+    public void warmUp(int count) {
+        int target = Math.min(count, maxSize);
+        if (target <= 0) {
+            return;
+        }
+        Thread warmer = new Thread(() -> {
+            for (int i = 0; i < target && !closed; i++) {
+                PooledSession session;
+                try {
+                    session = startSession();
+                } catch (Exception e) {
+                    System.err.println("Driver pool warm-up failed for " + browserName + ": " + e.getMessage());
+                    return;
+                }
+                if (session == null) {
+                    // Pool already full
+                    return;
+                }
+                idle.offerLast(session);
+            }
+        }, "driver-pool-warmup-" + browserName);
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    /**
+     * Borrow a session, reusing an idle one when available
+     */
+    public WebDriver borrow() {
+        if (closed) {
+            throw new IllegalStateException("Driver pool for " + browserName + " is closed");
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Timed out waiting for a free " + browserName + " session");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a " + browserName + " session", e);
+        }
+
+        try {
+            PooledSession session = takeIdle();
+            if (session == null) {
+                session = startOrAwaitSession(waitStart);
+            }
+            // The wait covers starting a browser or waiting for one to come back, not just the permit
+            recordWait(System.nanoTime() - waitStart);
+            session.uses++;
+            borrowed.put(session.driver, session);
+            return session.driver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Take the most recently released idle session that has not expired; null if there is none
+     */
+    private PooledSession takeIdle() {
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            if (isExpired(session, System.currentTimeMillis())) {
+                retire(session);
+                continue;
+            }
+            hits.incrementAndGet();
+            return session;
+        }
+        return null;
+    }
+
+    /**
+     * Start a session for a borrow miss or, when the pool is full of idle and
+     * warming sessions, take the next one that becomes idle
+     */
+    private PooledSession startOrAwaitSession(long waitStart) {
+        long deadline = waitStart + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        while (true) {
+            PooledSession session = startSession();
+            if (session != null) {
+                misses.incrementAndGet();
+                return session;
+            }
+            try {
+                session = idle.pollFirst(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a " + browserName + " session", e);
+            }
+            if (session != null) {
+                if (isExpired(session, System.currentTimeMillis())) {
+                    retire(session);
+                    continue;
+                }
+                hits.incrementAndGet();
+                return session;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Timed out waiting for a free " + browserName + " session");
+            }
+        }
+    }
+
+    /**
+     * Start a browser if fewer than maxSize are live; null when the pool is full
+     */
+    private PooledSession startSession() {
+        synchronized (liveLock) {
+            if (live >= maxSize) {
+                return null;
+            }
+            live++;
+        }
+        try {
+            return new PooledSession(driverFactory.get());
+        } catch (RuntimeException e) {
+            synchronized (liveLock) {
+                live--;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Return a borrowed session to the pool after resetting its state
+     */
+    public void release(WebDriver webDriver) {
+        PooledSession session = borrowed.remove(webDriver);
+        if (session == null) {
+            return;
+        }
+
+        try {
+            if (closed || session.uses >= maxUses || !reset(session.driver)) {
+                retire(session);
+            } else {
+                session.lastReleased = System.currentTimeMillis();
+                idle.offerFirst(session);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Discard a borrowed session instead of returning it (e.g. after a crash)
+     */
+    public void invalidate(WebDriver webDriver) {
+        PooledSession session = borrowed.remove(webDriver);
+        if (session != null) {
+            retire(session);
+            permits.release();
+        }
+    }
+
+    /**
+     * Clear cookies, web storage and extra tabs so the next borrower starts clean
+     */
+    private boolean reset(WebDriver webDriver) {
+        try {
+            List<String> handles = new ArrayList<>(webDriver.getWindowHandles());
+            if (handles.isEmpty()) {
+                return false;
+            }
+            String keep = handles.get(0);
+            for (String handle : handles.subList(1, handles.size())) {
+                webDriver.switchTo().window(handle);
+                webDriver.close();
+            }
+            webDriver.switchTo().window(keep);
+
+            try {
+                ((JavascriptExecutor) webDriver).executeScript(
+                    "try { window.localStorage.clear(); } catch (e) {}" +
+                    "try { window.sessionStorage.clear(); } catch (e) {}");
+            } catch (Exception e) {
+                // Pages such as about:blank have no accessible storage
+            }
+            webDriver.manage().deleteAllCookies();
+            if (webDriver instanceof HasCdp) {
+                // WebDriver cookie commands only see the current domain
+                ((HasCdp) webDriver).executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+            }
+            webDriver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.err.println("Discarding " + browserName + " session that failed to reset: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledSession session, long now) {
+        return now - session.lastReleased > idleTimeoutMillis || session.uses >= maxUses;
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledSession> iterator = idle.iterator();
+        while (iterator.hasNext()) {
+            PooledSession session = iterator.next();
+            if (isExpired(session, now) && idle.removeFirstOccurrence(session)) {
+                retire(session);
+            }
+        }
+    }
+
+    private void retire(PooledSession session) {
+        retired.incrementAndGet();
+        try {
+            session.driver.quit();
+        } catch (Exception e) {
+            // Session is already gone
+        } finally {
+            synchronized (liveLock) {
+                live--;
+            }
+        }
+    }
+
+    private void recordWait(long nanos) {
+        waitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Close all idle sessions and print the pool statistics
+     */
+    public synchronized void shutdown() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        reaper.shutdownNow();
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            retire(session);
+        }
+        System.out.println(getStats());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Get the number of sessions started or starting and not yet quit
+     */
+    public int getLiveCount() {
+        synchronized (liveLock) {
+            return live;
+        }
+    }
+
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.get());
+    }
+
+    /**
+     * Get a one-line summary of pool counters
+     */
+    public String getStats() {
+        long borrows = hits.get() + misses.get();
+        double hitRate = borrows == 0 ? 0 : 100.0 * hits.get() / borrows;
+        return String.format(
+            "Driver pool [%s]: borrows=%d hits=%d misses=%d hitRate=%.1f%% retired=%d idle=%d " +
+            "waitTotal=%dms waitMax=%dms",
+            browserName, borrows, hits.get(), misses.get(), hitRate, retired.get(), idle.size(),
+            getTotalWaitMillis(), TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+    }
+}
@@ -0,0 +1,281 @@
+package com.kiosk.utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverFinder;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps long-lived driver server processes (chromedriver, msedgedriver, geckodriver)
+ * that all WebDriver sessions in the JVM connect to, instead of starting one server
+ * per session.
+ *
+ * Selenium stops a driver's service when the session quits, so the services handed
+ * out here ignore that stop request and are only shut down by {@link #shutdown()}.
+ * geckodriver serves a single session at a time, so Firefox services are recycled
+ * through an idle list rather than shared concurrently.
+ */
+public class DriverServiceManager {
+
+    private static final Map<String, DriverService> sharedServices = new ConcurrentHashMap<>();
+    private static final ConcurrentLinkedDeque<SharedGeckoDriverService> idleGeckoServices = new ConcurrentLinkedDeque<>();
+    private static final Set<DriverService> allServices = ConcurrentHashMap.newKeySet();
+    private static final ScheduledExecutorService healthCheck = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "driver-service-health");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static volatile boolean shuttingDown;
+
+    static {
+        int interval = ConfigReader.getDriverServiceHealthInterval();
+        if (interval > 0) {
+            healthCheck.scheduleWithFixedDelay(DriverServiceManager::checkHealth, interval, interval, TimeUnit.SECONDS);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverServiceManager::shutdown, "driver-service-shutdown"));
+    }
+
+    /**
+     * Marks services whose stop() is managed by this class
+     */
+    private interface SharedService {
+        void shutdown();
+    }
+
+    /**
+     * Get the shared chromedriver service, starting or restarting it if needed
+     */
+    public static ChromeDriverService getChromeService() {
+        return (ChromeDriverService) getShared("chrome", () -> start(new SharedChromeBuilder().usingAnyFreePort().build(), new ChromeOptions()));
+    }
+
+    /**
+     * Get the shared msedgedriver service, starting or restarting it if needed
+     */
+    public static EdgeDriverService getEdgeService() {
+        return (EdgeDriverService) getShared("edge", () -> start(new SharedEdgeBuilder().usingAnyFreePort().build(), new EdgeOptions()));
+    }
+
+    /**
+     * Get an idle geckodriver service, starting a new one if all are busy
+     */
+    public static GeckoDriverService getGeckoService() {
+        SharedGeckoDriverService service;
+        while ((service = idleGeckoServices.pollFirst()) != null) {
+            if (service.isRunning()) {
+                return service;
+            }
+            service.shutdown();
+        }
+        return start(new SharedGeckoBuilder().usingAnyFreePort().build(), new FirefoxOptions());
+    }
+
+    /**
+     * Stop the shared service for a browser so the next session starts a fresh one
+     */
+    public static synchronized void discard(String browserName) {
+        DriverService service = sharedServices.remove(browserName.toLowerCase());
+        if (service != null) {
+            ((SharedService) service).shutdown();
+        }
+        if ("firefox".equalsIgnoreCase(browserName)) {
+            SharedGeckoDriverService gecko;
+            while ((gecko = idleGeckoServices.pollFirst()) != null) {
+                gecko.shutdown();
+            }
+        }
+    }
+
+    private static synchronized DriverService getShared(String key, Supplier<DriverService> factory) {
+        DriverService service = sharedServices.get(key);
+        if (service != null && service.isRunning()) {
+            return service;
+        }
+        if (service != null) {
+            System.err.println("Driver service for " + key + " is not running, restarting it");
+            ((SharedService) service).shutdown();
+        }
+        service = factory.get();
+        sharedServices.put(key, service);
+        return service;
+    }
+
+    private static <T extends DriverService> T start(T service, Capabilities options) {
+        if (service.getExecutable() == null) {
+            String configured = System.getProperty(service.getDriverProperty());
+            if (configured != null) {
+                service.setExecutable(configured);
+            } else {
+                service.setExecutable(DriverFinder.getPath(service, options).getDriverPath());
+            }
+        }
+        try {
+            service.start();
+        } catch (IOException e) {
+            throw new WebDriverException("Failed to start driver service " + service.getExecutable(), e);
+        }
+        allServices.add(service);
+        System.out.println("Started shared driver service at " + service.getUrl());
+        return service;
+    }
+
+    /**
+     * Restart shared services whose process has died
+     */
+    private static void checkHealth() {
+        try {
+            for (String key : sharedServices.keySet()) {
+                if (!sharedServices.get(key).isRunning()) {
+                    if ("chrome".equals(key)) {
+                        getChromeService();
+                    } else if ("edge".equals(key)) {
+                        getEdgeService();
+                    }
+                }
+            }
+            idleGeckoServices.removeIf(service -> {
+                if (!service.isRunning()) {
+                    service.shutdown();
+                    return true;
+                }
+                return false;
+            });
+        } catch (Exception e) {
+            System.err.println("Driver service health check failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop every driver service started by this manager.
+     * Pooled sessions are closed first so they can still reach their server.
+     */
+    public static synchronized void shutdown() {
+        if (shuttingDown) {
+            return;
+        }
+        shuttingDown = true;
+        healthCheck.shutdownNow();
+        DriverPool.shutdownAll();
+        for (DriverService service : allServices) {
+            ((SharedService) service).shutdown();
+        }
+        allServices.clear();
+        sharedServices.clear();
+        idleGeckoServices.clear();
+    }
+
+    private static class SharedChromeDriverService extends ChromeDriverService implements SharedService {
+        SharedChromeDriverService(File executable, int port, Duration timeout, List<String> args,
+                                  Map<String, String> environment) throws IOException {
+            super(executable, port, timeout, args, environment);
+        }
+
+        @Override
+        public void stop() {
+            // Sessions quitting must not stop the shared server
+        }
+
+        @Override
+        public void shutdown() {
+            allServices.remove(this);
+            super.stop();
+        }
+    }
+
+    private static class SharedEdgeDriverService extends EdgeDriverService implements SharedService {
+        SharedEdgeDriverService(File executable, int port, Duration timeout, List<String> args,
+                                Map<String, String> environment) throws IOException {
+            super(executable, port, timeout, args, environment);
+        }
+
+        @Override
+        public void stop() {
+            // Sessions quitting must not stop the shared server
+        }
+
+        @Override
+        public void shutdown() {
+            allServices.remove(this);
+            super.stop();
+        }
+    }
+
+    private static class SharedGeckoDriverService extends GeckoDriverService implements SharedService {
+        SharedGeckoDriverService(File executable, int port, Duration timeout, List<String> args,
+                                 Map<String, String> environment) throws IOException {
+            super(executable, port, timeout, args, environment);
+        }
+
+        @Override
+        public void stop() {
+            // The session on this geckodriver has ended; keep the process for the next one
+            if (shuttingDown) {
+                shutdown();
+            } else {
+                idleGeckoServices.offerFirst(this);
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            allServices.remove(this);
+            super.stop();
+        }
+    }
+
+    private static class SharedChromeBuilder extends ChromeDriverService.Builder {
+        @Override
+        protected ChromeDriverService createDriverService(File exe, int port, Duration timeout, List<String> args,
+                                                          Map<String, String> environment) {
+            try {
+                return new SharedChromeDriverService(exe, port, timeout, args, environment);
+            } catch (IOException e) {
+                throw new WebDriverException(e);
+            }
+        }
+    }
+
+    private static class SharedEdgeBuilder extends EdgeDriverService.Builder {
+        @Override
+        protected EdgeDriverService createDriverService(File exe, int port, Duration timeout, List<String> args,
+                                                        Map<String, String> environment) {
+            try {
+                return new SharedEdgeDriverService(exe, port, timeout, args, environment);
+            } catch (IOException e) {
+                throw new WebDriverException(e);
+            }
+        }
+    }
+
+    private static class SharedGeckoBuilder extends GeckoDriverService.Builder {
+        @Override
+        protected GeckoDriverService createDriverService(File exe, int port, Duration timeout, List<String> args,
+                                                         Map<String, String> environment) {
+            try {
+                return new SharedGeckoDriverService(exe, port, timeout, args, environment);
+            } catch (IOException e) {
+                throw new WebDriverException(e);
+            }
+        }
+    }
+}
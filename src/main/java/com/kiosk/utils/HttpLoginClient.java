@@ -0,0 +1,362 @@
+package com.kiosk.utils;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Logs in to the kiosk over plain HTTP (GET the login form, POST the credentials)
+ * and hands the resulting session cookies to a WebDriver, skipping the login form UI.
+ *
+ * Certificates are verified. Unlike the browser, the client only accepts a
+ * self-signed or otherwise invalid certificate when http.login.insecure=true and
+ * the kiosk host is listed in http.login.insecure.hosts (by default the loopback
+ * addresses the stand-in server uses), since it sends the credentials itself.
+ */
+public class HttpLoginClient {
+
+    private static final Pattern FORM = Pattern.compile("<form\\b([^>]*)>(.*?)</form>",
+        Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern INPUT = Pattern.compile("<input\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ATTRIBUTE = Pattern.compile(
+        "([\\w:-]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))");
+    private static final Pattern PASSWORD_INPUT = Pattern.compile(
+        "<input\\b[^>]*type\\s*=\\s*[\"']?password", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Outcome of a protocol-level login attempt
+     */
+    public static class Result {
+        private final boolean success;
+        private final String message;
+        private final URI finalUri;
+        private final List<HttpCookie> cookies;
+        private final long elapsedMillis;
+
+        Result(boolean success, String message, URI finalUri, List<HttpCookie> cookies, long elapsedMillis) {
+            this.success = success;
+            this.message = message;
+            this.finalUri = finalUri;
+            this.cookies = cookies;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public URI getFinalUri() {
+            return finalUri;
+        }
+
+        public List<HttpCookie> getCookies() {
+            return cookies;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    private final CookieManager cookieManager = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+    private final Duration requestTimeout;
+    private final boolean insecure;
+    private final List<String> insecureHosts;
+
+    public HttpLoginClient() {
+        this(Duration.ofSeconds(ConfigReader.getTimeout()));
+    }
+
+    public HttpLoginClient(Duration requestTimeout) {
+        this(requestTimeout, ConfigReader.isHttpLoginInsecure());
+    }
+
+    /**
+     * Create a client; insecure accepts any certificate, but only from the hosts
+     * in http.login.insecure.hosts
+     */
+    public HttpLoginClient(Duration requestTimeout, boolean insecure) {
+        this.requestTimeout = requestTimeout;
+        this.insecure = insecure;
+        this.insecureHosts = Arrays.asList(ConfigReader.getHttpLoginInsecureHosts().toLowerCase(Locale.ROOT)
+            .split("\\s*,\\s*"));
+    }
+
+    /**
+     * Load the login form at loginUrl, submit the credentials and collect the session cookies
+     */
+    public Result login(String loginUrl, String username, String password) {
+        long start = System.nanoTime();
+        try {
+            HttpClient client = clientFor(URI.create(loginUrl));
+            HttpResponse<String> page = client.send(
+                HttpRequest.newBuilder(URI.create(loginUrl)).timeout(requestTimeout).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+            if (page.statusCode() >= 400) {
+                return failure("Login page returned HTTP " + page.statusCode(), page.uri(), start);
+            }
+
+            Matcher form = findLoginForm(page.body());
+            if (form == null) {
+                return failure("No login form found", page.uri(), start);
+            }
+            Map<String, String> formAttributes = attributes(form.group(1));
+            Map<String, String> fields = formFields(form.group(2), username, password);
+            if (fields == null) {
+                return failure("Login form has no username/password fields", page.uri(), start);
+            }
+
+            String action = formAttributes.getOrDefault("action", "");
+            URI target = action.isEmpty() ? page.uri() : page.uri().resolve(action);
+            String method = formAttributes.getOrDefault("method", "get").toUpperCase(Locale.ROOT);
+            HttpRequest submit;
+            if ("POST".equals(method)) {
+                submit = HttpRequest.newBuilder(target)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .header("Referer", page.uri().toString())
+                    .POST(HttpRequest.BodyPublishers.ofString(encode(fields)))
+                    .build();
+            } else {
+                submit = HttpRequest.newBuilder(URI.create(target.toString().split("\\?")[0] + "?" + encode(fields)))
+                    .timeout(requestTimeout)
+                    .GET()
+                    .build();
+            }
+
+            HttpResponse<String> response = client.send(submit, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                return failure("Login returned HTTP " + response.statusCode(), response.uri(), start);
+            }
+            if (PASSWORD_INPUT.matcher(response.body()).find()) {
+                return failure("Credentials were not accepted", response.uri(), start);
+            }
+            List<HttpCookie> cookies = new ArrayList<>(cookieManager.getCookieStore().get(response.uri()));
+            if (cookies.isEmpty()) {
+                return failure("Login did not set any session cookie", response.uri(), start);
+            }
+            return new Result(true, "Logged in", response.uri(), cookies, elapsed(start));
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return failure("Protocol login failed: " + e.getMessage(), URI.create(loginUrl), start);
+        }
+    }
+
+    /**
+     * Add the session cookies from a successful login to the driver and open the post-login page.
+     * The driver is first pointed at the cookies' origin, since WebDriver only sets cookies there.
+     */
+    public static void injectInto(WebDriver driver, Result result) {
+        URI uri = result.getFinalUri();
+        String current = driver.getCurrentUrl();
+        if (current == null || !current.startsWith(uri.getScheme() + "://" + uri.getAuthority())) {
+            driver.get(uri.toString());
+        }
+        for (HttpCookie cookie : result.getCookies()) {
+            Cookie.Builder builder = new Cookie.Builder(cookie.getName(), cookie.getValue())
+                .path(cookie.getPath() == null ? "/" : cookie.getPath())
+                .isSecure(cookie.getSecure())
+                .isHttpOnly(cookie.isHttpOnly());
+            if (cookie.getDomain() != null) {
+                builder.domain(cookie.getDomain());
+            }
+            driver.manage().addCookie(builder.build());
+        }
+        driver.get(uri.toString());
+    }
+
+    /**
+     * Build the client for a login; the certificate checks are only relaxed
+     * for an allowed host, and only on this client
+     */
+    private HttpClient clientFor(URI uri) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .cookieHandler(cookieManager)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(requestTimeout);
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        if (insecure && "https".equalsIgnoreCase(uri.getScheme()) && insecureHosts.contains(host)) {
+            System.out.println("Protocol login accepts any certificate from " + host + " (http.login.insecure)");
+            builder.sslContext(trustAllContext());
+        }
+        return builder.build();
+    }
+
+    private static Matcher findLoginForm(String html) {
+        Matcher form = FORM.matcher(html);
+        while (form.find()) {
+            if (PASSWORD_INPUT.matcher(form.group(2)).find()) {
+                return form;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Collect the form's inputs (including hidden CSRF tokens) and fill in the credentials
+     */
+    private static Map<String, String> formFields(String formBody, String username, String password) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        String usernameField = null;
+        String passwordField = null;
+        String firstTextField = null;
+
+        Matcher input = INPUT.matcher(formBody);
+        while (input.find()) {
+            Map<String, String> attrs = attributes(input.group(1));
+            String name = attrs.get("name");
+            if (name == null) {
+                continue;
+            }
+            String type = attrs.getOrDefault("type", "text").toLowerCase(Locale.ROOT);
+            switch (type) {
+                case "password":
+                    passwordField = passwordField == null ? name : passwordField;
+                    break;
+                case "text":
+                case "email":
+                    if (firstTextField == null) {
+                        firstTextField = name;
+                    }
+                    if (name.toLowerCase(Locale.ROOT).matches("user(name)?|login|email")) {
+                        usernameField = name;
+                    }
+                    break;
+                case "checkbox":
+                case "radio":
+                    if (!attrs.containsKey("checked")) {
+                        continue;
+                    }
+                    break;
+                case "submit":
+                case "button":
+                case "image":
+                case "reset":
+                    continue;
+                default:
+                    break;
+            }
+            fields.put(name, attrs.getOrDefault("value", ""));
+        }
+
+        usernameField = usernameField != null ? usernameField : firstTextField;
+        if (usernameField == null || passwordField == null) {
+            return null;
+        }
+        fields.put(usernameField, username);
+        fields.put(passwordField, password);
+        return fields;
+    }
+
+    private static Map<String, String> attributes(String tag) {
+        Map<String, String> attrs = new LinkedHashMap<>();
+        Matcher attribute = ATTRIBUTE.matcher(tag);
+        while (attribute.find()) {
+            String value = attribute.group(2) != null ? attribute.group(2)
+                : attribute.group(3) != null ? attribute.group(3) : attribute.group(4);
+            attrs.put(attribute.group(1).toLowerCase(Locale.ROOT), value);
+        }
+        if (tag.matches("(?is).*\\bchecked\\b.*")) {
+            attrs.putIfAbsent("checked", "checked");
+        }
+        return attrs;
+    }
+
+    private static String encode(Map<String, String> fields) {
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (body.length() > 0) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8))
+                .append('=')
+                .append(URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8));
+        }
+        return body.toString();
+    }
+
+    private static Result failure(String message, URI uri, long start) {
+        return new Result(false, message, uri, Collections.emptyList(), elapsed(start));
+    }
+
+    private static long elapsed(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * SSL context that accepts any certificate for any host name. An extended
+     * trust manager does its own host name checks, so none are made here; it
+     * needs no JVM-wide switch and affects only the clients it is given to.
+     */
+    static SSLContext trustAllContext() {
+        try {
+            TrustManager[] trustAll = {new X509ExtendedTrustManager() {
+                @Override
+                public void checkClientTrusted(X509Certificate[] chain, String authType) {
+                }
+
+                @Override
+                public void checkServerTrusted(X509Certificate[] chain, String authType) {
+                }
+
+                @Override
+                public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) {
+                }
+
+                @Override
+                public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) {
+                }
+
+                @Override
+                public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {
+                }
+
+                @Override
+                public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {
+                }
+
+                @Override
+                public X509Certificate[] getAcceptedIssuers() {
+                    return new X509Certificate[0];
+                }
+            }};
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, trustAll, new SecureRandom());
+            return context;
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to create SSL context", e);
+        }
+    }
+}
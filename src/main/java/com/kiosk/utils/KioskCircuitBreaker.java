@@ -0,0 +1,231 @@
+package com.kiosk.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Properties;
+
+/**
+ * Circuit breaker for a kiosk host, kept on disk so that it spans scheduled runs
+ * (breaker.state.file, one entry per scheme, host and port).
+ *
+ * CLOSED: runs go ahead. A failed health probe opens the breaker.
+ * OPEN: runs are skipped without launching a browser until the back-off has
+ * passed. The back-off starts at breaker.backoff.initial.seconds and doubles
+ * with every consecutive failure, up to breaker.backoff.max.seconds.
+ * HALF_OPEN: the back-off has passed; the next run probes the kiosk before doing
+ * anything else. Success closes the breaker, failure opens it again for longer.
+ */
+public class KioskCircuitBreaker {
+
+    /**
+     * Breaker states
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final File file;
+    private final String key;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private long retryAt;
+    private String lastError;
+    private volatile KioskProbe.Result lastProbe;
+
+    public KioskCircuitBreaker(File file, String kioskUrl, long initialBackoffMillis, long maxBackoffMillis) {
+        this.file = file;
+        this.key = keyFor(kioskUrl);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        load();
+    }
+
+    /**
+     * Get the breaker for a kiosk URL, configured from the breaker.* settings
+     */
+    public static KioskCircuitBreaker forKiosk(String kioskUrl) {
+        return new KioskCircuitBreaker(new File(ConfigReader.getBreakerStateFile()), kioskUrl,
+            ConfigReader.getBreakerInitialBackoffSeconds() * 1000L, ConfigReader.getBreakerMaxBackoffSeconds() * 1000L);
+    }
+
+    /**
+     * Check whether a run may go ahead; moves an OPEN breaker whose back-off has
+     * passed to HALF_OPEN, so the run must probe first
+     */
+    public synchronized boolean allowRun() {
+        // Another process (an earlier scheduled run) may have changed it
+        load();
+        if (state != State.OPEN) {
+            return true;
+        }
+        if (System.currentTimeMillis() < retryAt) {
+            return false;
+        }
+        state = State.HALF_OPEN;
+        save();
+        System.out.println("Circuit breaker for " + key + " half-open: probing the kiosk");
+        return true;
+    }
+
+    /**
+     * Probe the kiosk's health and record the outcome; true when it is up
+     */
+    public boolean preflight(String url, int timeoutMillis) {
+        try {
+            KioskProbe.Result result = KioskProbe.checkHealth(url, timeoutMillis);
+            System.out.println("Kiosk probe: " + result);
+            lastProbe = result;
+            recordSuccess();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            recordFailure(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Record a successful probe: the breaker closes and the back-off resets
+     */
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            System.out.println("Circuit breaker for " + key + " closed: kiosk is back after " + failures
+                + " failed probe(s)");
+        }
+        state = State.CLOSED;
+        failures = 0;
+        openedAt = 0;
+        retryAt = 0;
+        lastError = null;
+        save();
+    }
+
+    /**
+     * Record a failed probe: the breaker opens with a doubled back-off
+     */
+    public synchronized void recordFailure(String error) {
+        long now = System.currentTimeMillis();
+        if (state == State.CLOSED) {
+            openedAt = now;
+        }
+        failures++;
+        state = State.OPEN;
+        retryAt = now + getBackoffMillis();
+        lastError = error;
+        save();
+        System.err.println("Circuit breaker open: " + describe());
+    }
+
+    /**
+     * Get the back-off after the current number of consecutive failures
+     */
+    public synchronized long getBackoffMillis() {
+        long backoff = initialBackoffMillis;
+        for (int i = 1; i < failures && backoff < maxBackoffMillis; i++) {
+            backoff *= 2;
+        }
+        return Math.min(backoff, maxBackoffMillis);
+    }
+
+    /**
+     * Get the result of the last successful preflight, or null
+     */
+    public KioskProbe.Result getLastProbe() {
+        return lastProbe;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getFailures() {
+        return failures;
+    }
+
+    public synchronized Instant getRetryAt() {
+        return Instant.ofEpochMilli(retryAt);
+    }
+
+    /**
+     * Describe an open breaker, e.g. for a skipped run
+     */
+    public synchronized String describe() {
+        if (state == State.CLOSED) {
+            return key + " is up";
+        }
+        return String.format("%s down since %s after %d failed probe(s) (last: %s), next probe at %s",
+            key, Instant.ofEpochMilli(openedAt), failures, lastError, Instant.ofEpochMilli(retryAt));
+    }
+
+    private static String keyFor(String kioskUrl) {
+        URI uri = URI.create(kioskUrl);
+        String scheme = uri.getScheme() == null ? "http" : uri.getScheme().toLowerCase();
+        int port = uri.getPort() > 0 ? uri.getPort() : ("https".equals(scheme) ? 443 : 80);
+        return scheme + "://" + uri.getHost() + ":" + port;
+    }
+
+    private Properties read() {
+        Properties entries = new Properties();
+        if (file.isFile()) {
+            try (InputStream in = new FileInputStream(file)) {
+                entries.load(in);
+            } catch (IOException e) {
+                System.err.println("Error reading circuit breaker state: " + e.getMessage());
+            }
+        }
+        return entries;
+    }
+
+    private void load() {
+        Properties entries = read();
+        state = State.valueOf(entries.getProperty(key + ".state", State.CLOSED.name()));
+        failures = Integer.parseInt(entries.getProperty(key + ".failures", "0"));
+        openedAt = Long.parseLong(entries.getProperty(key + ".openedAt", "0"));
+        retryAt = Long.parseLong(entries.getProperty(key + ".retryAt", "0"));
+        lastError = entries.getProperty(key + ".lastError");
+    }
+
+    /**
+     * Rewrite this kiosk's entry, keeping the others, and replace the file in one step
+     */
+    private void save() {
+        Properties entries = read();
+        entries.setProperty(key + ".state", state.name());
+        entries.setProperty(key + ".failures", String.valueOf(failures));
+        entries.setProperty(key + ".openedAt", String.valueOf(openedAt));
+        entries.setProperty(key + ".retryAt", String.valueOf(retryAt));
+        if (lastError != null) {
+            entries.setProperty(key + ".lastError", lastError);
+        } else {
+            entries.remove(key + ".lastError");
+        }
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            parent.mkdirs();
+            File temp = File.createTempFile("breaker", ".tmp", parent);
+            try (OutputStream out = new FileOutputStream(temp)) {
+                entries.store(out, "Kiosk circuit breakers");
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing circuit breaker state: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.kiosk.utils;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Checks that the kiosk host can be reached before a browser is pointed at it:
+ * resolves its name, opens a TCP connection and, for https, completes a TLS
+ * handshake. Nothing is sent over that connection; checkHealth() then also
+ * requests the page and treats a 5xx answer as the kiosk being down.
+ *
+ * Besides failing fast when the kiosk is down, the probe warms the operating
+ * system's DNS cache and the server's connection handling for the browser's
+ * first request. Like DriverManager, it accepts self-signed certificates.
+ */
+public class KioskProbe {
+
+    /**
+     * Timings of a successful probe
+     */
+    public static class Result {
+        private final String host;
+        private final int port;
+        private final String address;
+        private final long dnsMillis;
+        private final long connectMillis;
+        private final long tlsMillis;
+        private final String tlsProtocol;
+        private final int httpStatus;
+        private final long httpMillis;
+
+        Result(String host, int port, String address, long dnsMillis, long connectMillis,
+               long tlsMillis, String tlsProtocol, int httpStatus, long httpMillis) {
+            this.host = host;
+            this.port = port;
+            this.address = address;
+            this.dnsMillis = dnsMillis;
+            this.connectMillis = connectMillis;
+            this.tlsMillis = tlsMillis;
+            this.tlsProtocol = tlsProtocol;
+            this.httpStatus = httpStatus;
+            this.httpMillis = httpMillis;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        public long getDnsMillis() {
+            return dnsMillis;
+        }
+
+        public long getConnectMillis() {
+            return connectMillis;
+        }
+
+        /**
+         * Get the TLS handshake time, or -1 for plain http
+         */
+        public long getTlsMillis() {
+            return tlsMillis;
+        }
+
+        /**
+         * Get the HTTP status of the health request, or -1 when only the connection was probed
+         */
+        public int getHttpStatus() {
+            return httpStatus;
+        }
+
+        public long getTotalMillis() {
+            return dnsMillis + connectMillis + Math.max(0, tlsMillis) + Math.max(0, httpMillis);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s:%d (%s) reachable: dns %dms, connect %dms%s%s", host, port, address,
+                dnsMillis, connectMillis, tlsMillis < 0 ? "" : ", " + tlsProtocol + " handshake " + tlsMillis + "ms",
+                httpStatus < 0 ? "" : ", HTTP " + httpStatus + " in " + httpMillis + "ms");
+        }
+    }
+
+    /**
+     * Probe the host of an http or https URL; IOException if it cannot be reached
+     * within timeoutMillis per step
+     */
+    public static Result probe(String url, int timeoutMillis) throws IOException {
+        URI uri = URI.create(url);
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase();
+        if (!"http".equals(scheme) && !"https".equals(scheme)) {
+            throw new IllegalArgumentException("Can only probe http and https URLs, not " + url);
+        }
+        String host = uri.getHost();
+        if (host == null) {
+            throw new IllegalArgumentException("No host in URL " + url);
+        }
+        boolean tls = "https".equals(scheme);
+        int port = uri.getPort() > 0 ? uri.getPort() : (tls ? 443 : 80);
+
+        long start = System.nanoTime();
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw new UnknownHostException("Kiosk host " + host + " does not resolve");
+        }
+        long resolved = System.nanoTime();
+
+        IOException lastFailure = null;
+        for (InetAddress address : addresses) {
+            long connectStart = System.nanoTime();
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(address, port), timeoutMillis);
+                long connected = System.nanoTime();
+                long tlsMillis = -1;
+                String protocol = null;
+                if (tls) {
+                    socket.setSoTimeout(timeoutMillis);
+                    try (SSLSocket sslSocket = (SSLSocket) HttpLoginClient.trustAllContext().getSocketFactory()
+                            .createSocket(socket, host, port, true)) {
+                        sslSocket.startHandshake();
+                        protocol = sslSocket.getSession().getProtocol();
+                    }
+                    tlsMillis = millis(System.nanoTime() - connected);
+                }
+                return new Result(host, port, address.getHostAddress(), millis(resolved - start),
+                    millis(connected - connectStart), tlsMillis, protocol, -1, -1);
+            } catch (IOException e) {
+                lastFailure = e;
+            }
+        }
+        throw new IOException("Kiosk host " + host + ":" + port + " unreachable: "
+            + (lastFailure == null ? "no addresses" : lastFailure.getMessage()), lastFailure);
+    }
+
+    /**
+     * Probe the host, then GET the URL (without following redirects); IOException
+     * if the host cannot be reached or answers with a server error
+     */
+    public static Result checkHealth(String url, int timeoutMillis) throws IOException {
+        Result connection = probe(url, timeoutMillis);
+        // Only reachability is checked and no credentials are sent, so a self-signed kiosk counts as up
+        SSLContext trustAll = HttpLoginClient.trustAllContext();
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(timeoutMillis))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .sslContext(trustAll)
+            .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofMillis(timeoutMillis))
+            .GET()
+            .build();
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while checking " + url, e);
+        }
+        long httpMillis = millis(System.nanoTime() - start);
+        if (status >= 500) {
+            throw new IOException("Kiosk " + url + " answered HTTP " + status);
+        }
+        return new Result(connection.host, connection.port, connection.address, connection.dnsMillis,
+            connection.connectMillis, connection.tlsMillis, connection.tlsProtocol, status, httpMillis);
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
@@ -0,0 +1,154 @@
+package com.kiosk.utils;
+
+import org.openqa.selenium.By;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which locator strategy found each logical element on each page,
+ * so fallback chains try the last winner first. Learned winners are persisted
+ * between runs.
+ *
+ * Each winner carries a confidence score. A success raises it, a failure lowers
+ * it, and a winner whose score drops to zero is forgotten.
+ */
+public class LocatorRegistry {
+
+    private static final int MAX_SCORE = 3;
+
+    private static final Properties winners = new Properties();
+    private static final AtomicLong lookups = new AtomicLong();
+    private static final AtomicLong learnedHits = new AtomicLong();
+    private static final AtomicLong learnedMisses = new AtomicLong();
+    private static final AtomicLong demotions = new AtomicLong();
+
+    static {
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(
+            () -> System.out.println(getStats()), "locator-registry-stats"));
+    }
+
+    /**
+     * Build the registry key for a page from its URL (scheme, host, port and path)
+     */
+    public static String pageKey(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getScheme() + "://" + uri.getAuthority() + (uri.getPath() == null ? "" : uri.getPath());
+        } catch (Exception e) {
+            return String.valueOf(url);
+        }
+    }
+
+    /**
+     * Return the candidates with the learned winner (if any) moved to the front
+     */
+    public static List<By> order(String page, String element, List<By> candidates) {
+        lookups.incrementAndGet();
+        String winner = winners.getProperty(key(page, element));
+        List<By> ordered = new ArrayList<>(candidates);
+        if (winner != null) {
+            for (By candidate : candidates) {
+                if (candidate.toString().equals(winner)) {
+                    ordered.remove(candidate);
+                    ordered.add(0, candidate);
+                    break;
+                }
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Record that a candidate found the element
+     */
+    public static synchronized void recordSuccess(String page, String element, By candidate) {
+        String key = key(page, element);
+        String locator = candidate.toString();
+        if (locator.equals(winners.getProperty(key))) {
+            learnedHits.incrementAndGet();
+            int score = Integer.parseInt(winners.getProperty(key + ".score", "1"));
+            if (score < MAX_SCORE) {
+                winners.setProperty(key + ".score", String.valueOf(score + 1));
+                save();
+            }
+            return;
+        }
+        winners.setProperty(key, locator);
+        winners.setProperty(key + ".score", "1");
+        save();
+    }
+
+    /**
+     * Record that a candidate did not find the element
+     */
+    public static synchronized void recordMiss(String page, String element, By candidate) {
+        String key = key(page, element);
+        if (!candidate.toString().equals(winners.getProperty(key))) {
+            return;
+        }
+        learnedMisses.incrementAndGet();
+        int score = Integer.parseInt(winners.getProperty(key + ".score", "1")) - 1;
+        if (score <= 0) {
+            winners.remove(key);
+            winners.remove(key + ".score");
+            demotions.incrementAndGet();
+        } else {
+            winners.setProperty(key + ".score", String.valueOf(score));
+        }
+        save();
+    }
+
+    /**
+     * Get a one-line summary of registry hit rate and demotions. Candidates are
+     * probed together in one round trip, so the order saves no measurable time
+     * per candidate and none is reported.
+     */
+    public static String getStats() {
+        long hits = learnedHits.get();
+        long misses = learnedMisses.get();
+        double hitRate = hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses);
+        return String.format(
+            "Locator registry: lookups=%d learnedHits=%d learnedMisses=%d hitRate=%.1f%% demoted=%d",
+            lookups.get(), hits, misses, hitRate, demotions.get());
+    }
+
+    private static String key(String page, String element) {
+        return page + "|" + element;
+    }
+
+    private static void load() {
+        File file = new File(ConfigReader.getLocatorRegistryPath());
+        if (!file.isFile()) {
+            return;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            winners.load(in);
+        } catch (IOException e) {
+            System.err.println("Error reading locator registry: " + e.getMessage());
+        }
+    }
+
+    private static void save() {
+        File file = new File(ConfigReader.getLocatorRegistryPath());
+        File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            winners.store(out, "Learned locator strategies");
+        } catch (IOException e) {
+            System.err.println("Error writing locator registry: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.kiosk.utils;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves the authenticated state of a browser session (cookies plus local and
+ * session storage) to a per-user, per-URL cache file and restores it into new
+ * sessions, so the UI login only runs when no valid state is cached.
+ *
+ * The files hold live session cookies, so they are written readable by the
+ * current user only (see writePrivate).
+ */
+public class SessionStateCache {
+
+    private static final Json JSON = new Json();
+
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+
+    private static final String READ_STORAGE_SCRIPT =
+        "var dump = function(s) { var o = {}; try { for (var i = 0; i < s.length; i++) {" +
+        " var k = s.key(i); o[k] = s.getItem(k); } } catch (e) {} return o; };" +
+        "return { local: dump(window.localStorage), session: dump(window.sessionStorage) };";
+
+    private static final String WRITE_STORAGE_SCRIPT =
+        "var fill = function(s, o) { try { for (var k in o) { s.setItem(k, o[k]); } } catch (e) {} };" +
+        "fill(window.localStorage, arguments[0]); fill(window.sessionStorage, arguments[1]);";
+
+    /**
+     * Capture cookies and web storage of the page currently loaded in the driver
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> capture(WebDriver driver) {
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", cookie.getName());
+            entry.put("value", cookie.getValue());
+            entry.put("domain", cookie.getDomain());
+            entry.put("path", cookie.getPath());
+            entry.put("secure", cookie.isSecure());
+            entry.put("httpOnly", cookie.isHttpOnly());
+            if (cookie.getExpiry() != null) {
+                entry.put("expiry", cookie.getExpiry().getTime());
+            }
+            if (cookie.getSameSite() != null) {
+                entry.put("sameSite", cookie.getSameSite());
+            }
+            cookies.add(entry);
+        }
+
+        Map<String, Object> storage = (Map<String, Object>)
+            ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT);
+
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("url", driver.getCurrentUrl());
+        state.put("cookies", cookies);
+        state.put("localStorage", storage.get("local"));
+        state.put("sessionStorage", storage.get("session"));
+        return state;
+    }
+
+    /**
+     * Load a captured state into the driver. The driver must already be on the
+     * state's origin so cookies and storage land in the right place.
+     */
+    @SuppressWarnings("unchecked")
+    public static void apply(WebDriver driver, Map<String, Object> state) {
+        for (Map<String, Object> entry : (List<Map<String, Object>>) state.get("cookies")) {
+            Cookie.Builder builder = new Cookie.Builder((String) entry.get("name"), (String) entry.get("value"))
+                .path((String) entry.get("path"))
+                .isSecure(Boolean.TRUE.equals(entry.get("secure")))
+                .isHttpOnly(Boolean.TRUE.equals(entry.get("httpOnly")));
+            if (entry.get("domain") != null) {
+                builder.domain((String) entry.get("domain"));
+            }
+            if (entry.get("expiry") != null) {
+                builder.expiresOn(new Date(((Number) entry.get("expiry")).longValue()));
+            }
+            if (entry.get("sameSite") != null) {
+                builder.sameSite((String) entry.get("sameSite"));
+            }
+            try {
+                driver.manage().addCookie(builder.build());
+            } catch (Exception e) {
+                System.err.println("Skipping cookie " + entry.get("name") + ": " + e.getMessage());
+            }
+        }
+        ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT,
+            state.get("localStorage"), state.get("sessionStorage"));
+    }
+
+    /**
+     * Save the authenticated state of the driver for a user and kiosk URL
+     */
+    public static void save(WebDriver driver, String username, String url) {
+        if (!ConfigReader.isSessionCacheEnabled()) {
+            return;
+        }
+        Map<String, Object> state = capture(driver);
+        long now = System.currentTimeMillis();
+        state.put("savedAt", now);
+        state.put("expiresAt", now + TimeUnit.MINUTES.toMillis(ConfigReader.getSessionCacheTtlMinutes()));
+        try {
+            writePrivate(cacheFile(username, url), JSON.toJson(state).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Error saving session state: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load the cached state for a user and kiosk URL, or null if missing or expired
+     */
+    public static Map<String, Object> load(String username, String url) {
+        if (!ConfigReader.isSessionCacheEnabled()) {
+            return null;
+        }
+        Path file = cacheFile(username, url);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            Map<String, Object> state = JSON.toType(
+                new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Json.MAP_TYPE);
+            Number expiresAt = (Number) state.get("expiresAt");
+            if (expiresAt == null || expiresAt.longValue() < System.currentTimeMillis()) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            return state;
+        } catch (Exception e) {
+            System.err.println("Ignoring unreadable session state: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Restore the cached state into the driver and reload the kiosk URL.
+     * Returns false when nothing usable was cached.
+     */
+    public static boolean restore(WebDriver driver, String username, String url) {
+        Map<String, Object> state = load(username, url);
+        if (state == null) {
+            return false;
+        }
+        if (!sameOrigin(driver.getCurrentUrl(), url)) {
+            driver.get(url);
+        }
+        apply(driver, state);
+        driver.get(url);
+        return true;
+    }
+
+    /**
+     * Delete the cached state, e.g. after the server rejected it
+     */
+    public static void invalidate(String username, String url) {
+        try {
+            Files.deleteIfExists(cacheFile(username, url));
+        } catch (IOException e) {
+            System.err.println("Error deleting session state: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write a file that only the current user can read (rw------- where the file
+     * system has POSIX permissions), replacing any earlier one in one step
+     */
+    public static void writePrivate(Path file, byte[] content) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp;
+        if (dir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            temp = Files.createTempFile(dir, "state", ".tmp", PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        } else {
+            temp = Files.createTempFile(dir, "state", ".tmp");
+            File tempFile = temp.toFile();
+            tempFile.setReadable(false, false);
+            tempFile.setWritable(false, false);
+            tempFile.setReadable(true, true);
+            tempFile.setWritable(true, true);
+        }
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, file.toAbsolutePath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file.toAbsolutePath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static boolean sameOrigin(String currentUrl, String url) {
+        try {
+            URI current = URI.create(currentUrl);
+            URI target = URI.create(url);
+            return target.getScheme().equalsIgnoreCase(String.valueOf(current.getScheme()))
+                && target.getHost().equalsIgnoreCase(String.valueOf(current.getHost()))
+                && target.getPort() == current.getPort();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static Path cacheFile(String username, String url) {
+        return Paths.get(ConfigReader.getSessionCacheDir(), sha256(username + "|" + url) + ".json");
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
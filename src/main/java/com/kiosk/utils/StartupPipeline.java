@@ -0,0 +1,248 @@
+package com.kiosk.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Overlapped start-up for KioskAutomationRunner. Instead of reading the
+ * configuration, resolving the driver binary, launching the browser and only
+ * then contacting the kiosk, the stages run as CompletableFutures as soon as
+ * their inputs are ready:
+ *
+ *   config ─┬─ resolveDriver ── launchBrowser ─┬─ join (right before navigation)
+ *           └─ probe ──────────────────────────┘
+ *
+ * The probe (KioskProbe.checkHealth, switched off with probe.enabled=false)
+ * checks DNS, TCP, TLS and HTTP to the kiosk host while the browser starts, and
+ * records the outcome with the kiosk's circuit breaker when one is given. A probe
+ * result from a preflight made just before is used as is instead of probing the
+ * host a second time. The first stage to fail
+ * fails join() at once, without waiting for the others; a browser that comes
+ * up afterwards is quit. join() prints each stage's start and end, and the
+ * critical path: the chain of stages that decided when start-up finished.
+ */
+public class StartupPipeline {
+
+    /**
+     * One step of the pipeline and when it ran
+     */
+    private final class Stage<T> {
+        final String name;
+        final List<Stage<?>> after;
+        CompletableFuture<T> future;
+        volatile long startNanos = -1;
+        volatile long endNanos = -1;
+
+        Stage(String name, List<Stage<?>> after) {
+            this.name = name;
+            this.after = after;
+        }
+
+        T run(Callable<T> work) {
+            startNanos = System.nanoTime();
+            try (Tracer.Span span = Tracer.span("startup." + name)) {
+                return work.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                endNanos = System.nanoTime();
+            }
+        }
+
+        long durationNanos() {
+            return endNanos < 0 ? 0 : endNanos - startNanos;
+        }
+    }
+
+    private final long origin = System.nanoTime();
+    private final ExecutorService executor = Executors.newFixedThreadPool(3, runnable -> {
+        Thread thread = new Thread(runnable, "startup-pipeline");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Stage<?>> stages = new ArrayList<>();
+    private final CompletableFuture<Void> failure = new CompletableFuture<>();
+    private final Stage<WebDriver> launch;
+    private final Stage<KioskProbe.Result> probe;
+    private final KioskCircuitBreaker breaker;
+
+    // Written by the config stage; later stages and join() see them through the futures
+    private volatile String kioskUrl;
+    private volatile String browser;
+    private volatile boolean probeEnabled;
+    private volatile int probeTimeoutMillis;
+
+    private StartupPipeline(KioskCircuitBreaker breaker, KioskProbe.Result preflight) {
+        this.breaker = breaker;
+        Stage<Void> config = stage("config", () -> {
+            kioskUrl = ConfigReader.getKioskUrl();
+            browser = ConfigReader.getBrowser();
+            probeEnabled = ConfigReader.isProbeEnabled();
+            probeTimeoutMillis = ConfigReader.getProbeTimeoutMillis();
+            return null;
+        });
+        Stage<Void> resolve = stage("resolveDriver", () -> {
+            DriverBinaryResolver.resolve(browser);
+            return null;
+        }, config);
+        launch = stage("launchBrowser", () -> DriverManager.createDriver(browser), resolve);
+        probe = stage("probe", () -> {
+            if (!probeEnabled || !kioskUrl.toLowerCase().startsWith("http")) {
+                return null;
+            }
+            if (preflight != null) {
+                // Checked (and recorded with the breaker) right before start-up
+                return preflight;
+            }
+            KioskProbe.Result result;
+            try {
+                result = KioskProbe.checkHealth(kioskUrl, probeTimeoutMillis);
+            } catch (IOException e) {
+                if (breaker != null) {
+                    breaker.recordFailure(e.getMessage());
+                }
+                throw e;
+            }
+            if (breaker != null) {
+                breaker.recordSuccess();
+            }
+            System.out.println("Kiosk probe: " + result);
+            return result;
+        }, config);
+    }
+
+    /**
+     * Start every stage; nothing waits until join(). The breaker may be null.
+     */
+    public static StartupPipeline start(KioskCircuitBreaker breaker) {
+        return start(breaker, null);
+    }
+
+    /**
+     * Start every stage, taking the probe result from a preflight that has just
+     * passed (null to probe as usual)
+     */
+    public static StartupPipeline start(KioskCircuitBreaker breaker, KioskProbe.Result preflight) {
+        return new StartupPipeline(breaker, preflight);
+    }
+
+    /**
+     * Wait for the browser and the probe, print the stage timings and bind the
+     * browser to the calling thread. Throws as soon as any stage fails.
+     */
+    public WebDriver join() {
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(launch.future, probe.future), failure).join();
+        } catch (CompletionException e) {
+            // A browser that comes up after the failure is no longer needed
+            launch.future.thenAccept(WebDriver::quit);
+            executor.shutdown();
+            printTimings();
+            throw stageFailure(e);
+        }
+        executor.shutdown();
+        printTimings();
+        return DriverManager.bindDriver(launch.future.join());
+    }
+
+    /**
+     * Get the probe result, or null when the probe was skipped
+     */
+    public KioskProbe.Result getProbeResult() {
+        return probe.future.getNow(null);
+    }
+
+    private <T> Stage<T> stage(String name, Callable<T> work, Stage<?>... after) {
+        Stage<T> stage = new Stage<>(name, Arrays.asList(after));
+        CompletableFuture<?>[] inputs = new CompletableFuture<?>[after.length];
+        for (int i = 0; i < after.length; i++) {
+            inputs[i] = after[i].future;
+        }
+        stage.future = CompletableFuture.allOf(inputs).thenApplyAsync(ignored -> stage.run(work), executor);
+        stage.future.whenComplete((result, error) -> {
+            if (error != null) {
+                failure.completeExceptionally(error);
+            }
+        });
+        stages.add(stage);
+        return stage;
+    }
+
+    /**
+     * Name the stage that failed itself (its dependents only fail with it)
+     */
+    private RuntimeException stageFailure(CompletionException e) {
+        for (Stage<?> stage : stages) {
+            if (stage.endNanos >= 0 && stage.future.isCompletedExceptionally()) {
+                Throwable error = stage.future.handle((result, thrown) -> thrown).join();
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                return new IllegalStateException("Startup stage " + stage.name + " failed: " + cause.getMessage(),
+                    cause);
+            }
+        }
+        return e;
+    }
+
+    private void printTimings() {
+        System.out.println("Startup stages (ms since start):");
+        boolean probeSkipped = probe.future.isDone() && !probe.future.isCompletedExceptionally()
+            && probe.future.join() == null;
+        long sum = 0;
+        for (Stage<?> stage : stages) {
+            if (stage.startNanos < 0) {
+                System.out.println(String.format("  %-14s not started", stage.name));
+                continue;
+            }
+            if (stage.endNanos < 0) {
+                System.out.println(String.format("  %-14s %6d -> (still running)", stage.name,
+                    sinceStart(stage.startNanos)));
+                continue;
+            }
+            sum += stage.durationNanos();
+            System.out.println(String.format("  %-14s %6d -> %6d  %6dms%s", stage.name,
+                sinceStart(stage.startNanos), sinceStart(stage.endNanos), stage.durationNanos() / 1_000_000,
+                stage == probe && probeSkipped ? " (skipped)" : ""));
+        }
+
+        // Walk back from the last stage to finish through the input that finished last
+        List<String> path = new ArrayList<>();
+        Stage<?> current = latest(Arrays.<Stage<?>>asList(launch, probe));
+        long finished = current == null ? 0 : current.endNanos;
+        while (current != null) {
+            path.add(0, current.name);
+            current = latest(current.after);
+        }
+        if (path.isEmpty()) {
+            return;
+        }
+        long criticalMillis = sinceStart(finished);
+        System.out.println(String.format("Critical path: %s = %dms (stages total %dms, overlap saved %dms)",
+            String.join(" -> ", path), criticalMillis, sum / 1_000_000, Math.max(0, sum / 1_000_000 - criticalMillis)));
+    }
+
+    private static Stage<?> latest(List<Stage<?>> candidates) {
+        Stage<?> latest = null;
+        for (Stage<?> stage : candidates) {
+            if (stage.endNanos >= 0 && (latest == null || stage.endNanos > latest.endNanos)) {
+                latest = stage;
+            }
+        }
+        return latest;
+    }
+
+    private long sinceStart(long nanos) {
+        return (nanos - origin) / 1_000_000;
+    }
+}
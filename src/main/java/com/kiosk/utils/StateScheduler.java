@@ -0,0 +1,223 @@
+package com.kiosk.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Runs shared test prefixes such as "navigated and logged in" once per suite
+ * and forks every later test from a snapshot of the result.
+ *
+ * States form a tree: each one names its parent state and the step that gets
+ * there from it. The first enter() of a state runs the chain of steps from the
+ * root and captures cookies and web storage with SessionStateCache; later calls,
+ * usually on other pooled sessions, restore that snapshot instead. Threads that
+ * need a state while it is being built wait for it rather than building it
+ * again. If a restored snapshot fails the state's check (e.g. the session
+ * expired) the chain is run again and the snapshot replaced.
+ */
+public class StateScheduler {
+
+    /**
+     * What a step costs, for the report of steps avoided
+     */
+    public enum Kind {
+        NAVIGATION, LOGIN, OTHER
+    }
+
+    private static final class State {
+        final String name;
+        final State parent;
+        final Kind kind;
+        final Consumer<WebDriver> step;
+        final Predicate<WebDriver> check;
+        volatile Map<String, Object> snapshot;
+
+        State(String name, State parent, Kind kind, Consumer<WebDriver> step, Predicate<WebDriver> check) {
+            this.name = name;
+            this.parent = parent;
+            this.kind = kind;
+            this.step = step;
+            this.check = check;
+        }
+    }
+
+    private static final Map<String, State> states = new ConcurrentHashMap<>();
+    private static final Map<Kind, AtomicLong> executed = counters();
+    private static final Map<Kind, AtomicLong> removed = counters();
+    private static final AtomicLong restores = new AtomicLong();
+    private static final AtomicLong restorePageLoads = new AtomicLong();
+    private static final AtomicLong rebuilds = new AtomicLong();
+
+    /**
+     * Define a state reached from parent (null for a root state) by running step.
+     * The check, if not null, verifies that a restored snapshot is still valid.
+     */
+    public static void define(String name, String parent, Kind kind,
+                              Consumer<WebDriver> step, Predicate<WebDriver> check) {
+        State parentState = null;
+        if (parent != null) {
+            parentState = states.get(parent);
+            if (parentState == null) {
+                throw new IllegalArgumentException("Unknown parent state '" + parent + "' for '" + name + "'");
+            }
+        }
+        states.put(name, new State(name, parentState, kind, step, check));
+    }
+
+    /**
+     * Check whether a state has been defined
+     */
+    public static boolean isDefined(String name) {
+        return states.containsKey(name);
+    }
+
+    /**
+     * Bring the driver into the named state
+     */
+    public static void enter(WebDriver driver, String name) {
+        State state = states.get(name);
+        if (state == null) {
+            throw new IllegalArgumentException("Unknown state: " + name);
+        }
+        try (Tracer.Span span = Tracer.span("StateScheduler.enter")) {
+            Map<String, Object> snapshot = state.snapshot;
+            if (snapshot != null && restore(driver, state, snapshot)) {
+                return;
+            }
+            synchronized (state) {
+                // Another thread may have built it while we waited
+                if (state.snapshot != null && state.snapshot != snapshot && restore(driver, state, state.snapshot)) {
+                    return;
+                }
+                if (state.snapshot != null) {
+                    rebuilds.incrementAndGet();
+                }
+                build(driver, state);
+            }
+        }
+    }
+
+    private static void build(WebDriver driver, State state) {
+        if (state.parent != null) {
+            enter(driver, state.parent.name);
+        }
+        System.out.println("Building state: " + state.name);
+        state.step.accept(driver);
+        executed.get(state.kind).incrementAndGet();
+        state.snapshot = SessionStateCache.capture(driver);
+    }
+
+    /**
+     * Load a snapshot into the driver; false if the state's check rejects the result
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean restore(WebDriver driver, State state, Map<String, Object> snapshot) {
+        String url = (String) snapshot.get("url");
+        boolean onOrigin = SessionStateCache.sameOrigin(driver.getCurrentUrl(), url);
+        if (!onOrigin) {
+            // Cookies and storage can only be set on the state's origin
+            driver.get(url);
+            restorePageLoads.incrementAndGet();
+        }
+        SessionStateCache.apply(driver, snapshot);
+        boolean carriesState = !((List<Object>) snapshot.get("cookies")).isEmpty()
+            || !isEmpty(snapshot.get("localStorage")) || !isEmpty(snapshot.get("sessionStorage"));
+        if (carriesState || onOrigin) {
+            // Reload so the page sees the restored cookies and storage
+            driver.get(url);
+            restorePageLoads.incrementAndGet();
+        }
+        if (state.check != null && !state.check.test(driver)) {
+            System.out.println("Snapshot of state " + state.name + " no longer valid, rebuilding");
+            return false;
+        }
+        restores.incrementAndGet();
+        for (State skipped = state; skipped != null; skipped = skipped.parent) {
+            removed.get(skipped.kind).incrementAndGet();
+        }
+        return true;
+    }
+
+    private static boolean isEmpty(Object storage) {
+        return !(storage instanceof Map) || ((Map<?, ?>) storage).isEmpty();
+    }
+
+    /**
+     * Get the number of steps of a kind that were run
+     */
+    public static long getExecuted(Kind kind) {
+        return executed.get(kind).get();
+    }
+
+    /**
+     * Get the number of steps of a kind that restoring a snapshot made unnecessary
+     */
+    public static long getRemoved(Kind kind) {
+        return removed.get(kind).get();
+    }
+
+    /**
+     * Get the navigations removed less the page loads restoring took, since a
+     * restore is itself a driver.get and cookies or storage add a reload
+     */
+    public static long getNetRemovedNavigations() {
+        return getRemoved(Kind.NAVIGATION) - restorePageLoads.get();
+    }
+
+    /**
+     * Get the number of page loads done to restore snapshots, including rejected ones
+     */
+    public static long getRestorePageLoads() {
+        return restorePageLoads.get();
+    }
+
+    /**
+     * Get the number of states entered by restoring a snapshot
+     */
+    public static long getRestores() {
+        return restores.get();
+    }
+
+    /**
+     * Forget snapshots and counters; state definitions are kept
+     */
+    public static void reset() {
+        for (State state : states.values()) {
+            state.snapshot = null;
+        }
+        for (Kind kind : Kind.values()) {
+            executed.get(kind).set(0);
+            removed.get(kind).set(0);
+        }
+        restores.set(0);
+        restorePageLoads.set(0);
+        rebuilds.set(0);
+    }
+
+    /**
+     * Summary of steps run and steps avoided by restoring snapshots
+     */
+    public static String getReport() {
+        return String.format("State scheduler: %d restores (%d page loads, %d rebuilds); "
+                + "removed %d navigations (net %d after restore page loads) and %d logins, "
+                + "ran %d navigations and %d logins",
+            restores.get(), restorePageLoads.get(), rebuilds.get(),
+            getRemoved(Kind.NAVIGATION), getNetRemovedNavigations(), getRemoved(Kind.LOGIN),
+            getExecuted(Kind.NAVIGATION), getExecuted(Kind.LOGIN));
+    }
+
+    private static Map<Kind, AtomicLong> counters() {
+        Map<Kind, AtomicLong> counters = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            counters.put(kind, new AtomicLong());
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,211 @@
+package com.kiosk.utils;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hierarchical step tracer (run, test, page-object action, locator probe, driver command)
+ * exported in the Chrome trace-event format, so a run opens as a flame chart in
+ * chrome://tracing or https://ui.perfetto.dev.
+ *
+ * Begin and end events go into a fixed, preallocated ring buffer claimed with one
+ * atomic increment, so recording takes no lock and, once a thread has its span
+ * stack, allocates nothing. Span names must be constants (or method names) for that
+ * to hold. When the buffer wraps the oldest events are overwritten. With
+ * trace.enabled=false every call returns immediately.
+ *
+ * <pre>
+ * try (Tracer.Span span = Tracer.span("LoginPage.login")) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class Tracer {
+
+    private static final byte BEGIN = 'B';
+    private static final byte END = 'E';
+    private static final int MAX_DEPTH = 64;
+
+    private static final boolean enabled = ConfigReader.isTraceEnabled();
+    private static final int capacity = enabled ? ringCapacity(ConfigReader.getTraceBufferSize()) : 1;
+    private static final int mask = capacity - 1;
+    private static final long origin = System.nanoTime();
+
+    // Ring buffer as parallel arrays; sequence[i] is published last and marks slot i as complete
+    private static final String[] names = new String[capacity];
+    private static final byte[] phases = new byte[capacity];
+    private static final long[] timestamps = new long[capacity];
+    private static final long[] threads = new long[capacity];
+    private static final AtomicLongArray sequence = new AtomicLongArray(capacity);
+    private static final AtomicLong cursor = new AtomicLong();
+
+    private static final ThreadLocal<Span> spans = ThreadLocal.withInitial(Span::new);
+    private static final Listener listener = new Listener();
+
+    static {
+        if (enabled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                File file = new File(ConfigReader.getTraceFile());
+                try {
+                    export(file);
+                    System.out.println("Trace written to " + file.getAbsolutePath());
+                } catch (IOException e) {
+                    System.err.println("Error writing trace: " + e.getMessage());
+                }
+            }, "trace-export"));
+        }
+    }
+
+    /**
+     * A thread's open spans. One instance per thread is reused for every span,
+     * so try-with-resources costs no allocation; close() ends the innermost span.
+     */
+    public static final class Span implements AutoCloseable {
+        private final String[] open = new String[MAX_DEPTH];
+        private int depth;
+
+        @Override
+        public void close() {
+            if (depth == 0) {
+                return;
+            }
+            depth--;
+            if (depth < MAX_DEPTH) {
+                String name = open[depth];
+                open[depth] = null;
+                record(name, END);
+            }
+        }
+    }
+
+    /**
+     * Check whether tracing is on (trace.enabled)
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Open a span on the current thread; close it with try-with-resources
+     */
+    public static Span span(String name) {
+        Span span = spans.get();
+        if (!enabled) {
+            return span;
+        }
+        if (span.depth < MAX_DEPTH) {
+            span.open[span.depth] = name;
+            record(name, BEGIN);
+        }
+        span.depth++;
+        return span;
+    }
+
+    /**
+     * Get the current thread's span stack, e.g. to close a span opened in another callback
+     */
+    public static Span current() {
+        return spans.get();
+    }
+
+    /**
+     * Get the WebDriver listener that records every driver command as a span
+     */
+    public static WebDriverListener listener() {
+        return listener;
+    }
+
+    /**
+     * Driver commands as leaf spans named after the WebDriver method
+     */
+    private static final class Listener implements WebDriverListener {
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            span(method.getName());
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            spans.get().close();
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            spans.get().close();
+        }
+    }
+
+    private static void record(String name, byte phase) {
+        long seq = cursor.getAndIncrement();
+        int slot = (int) (seq & mask);
+        names[slot] = name;
+        phases[slot] = phase;
+        timestamps[slot] = System.nanoTime() - origin;
+        threads[slot] = Thread.currentThread().getId();
+        sequence.lazySet(slot, seq + 1);
+    }
+
+    /**
+     * Write the buffered events as a Chrome trace-event JSON file
+     */
+    public static void export(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8)) {
+            out.print(toJson());
+        }
+    }
+
+    /**
+     * Render the buffered events, oldest first, as Chrome trace-event JSON.
+     * End events whose begin was overwritten by the ring are dropped.
+     */
+    public static String toJson() {
+        long end = cursor.get();
+        long start = Math.max(0, end - capacity);
+        Map<Long, Integer> depths = new HashMap<>();
+        StringBuilder json = new StringBuilder("{\"displayTimeUnit\": \"ms\", \"traceEvents\": [\n");
+        json.append("  {\"name\": \"process_name\", \"ph\": \"M\", \"pid\": 1, \"args\": {\"name\": \"kiosk-automation\"}}");
+        for (long seq = start; seq < end; seq++) {
+            int slot = (int) (seq & mask);
+            if (sequence.get(slot) != seq + 1) {
+                // Slot still being written or already overwritten
+                continue;
+            }
+            long thread = threads[slot];
+            int depth = depths.getOrDefault(thread, 0);
+            if (phases[slot] == END) {
+                if (depth == 0) {
+                    continue;
+                }
+                depths.put(thread, depth - 1);
+            } else {
+                depths.put(thread, depth + 1);
+            }
+            json.append(String.format(",%n  {\"name\": \"%s\", \"ph\": \"%c\", \"ts\": %.3f, \"pid\": 1, \"tid\": %d}",
+                escape(names[slot]), (char) phases[slot], timestamps[slot] / 1000.0, thread));
+        }
+        return json.append("\n]}\n").toString();
+    }
+
+    private static String escape(String value) {
+        return String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static int ringCapacity(int requested) {
+        int size = Integer.highestOneBit(Math.max(2, requested));
+        return size < requested ? size << 1 : size;
+    }
+}
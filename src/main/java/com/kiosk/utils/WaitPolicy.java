@@ -0,0 +1,148 @@
+package com.kiosk.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Single source of truth for how long the framework waits.
+ *
+ * Implicit waits are disabled (unless wait.implicit.enabled=true) because they
+ * stack with explicit waits: every negative check paid the implicit wait on each
+ * poll of the explicit one. Explicit waits poll with exponential backoff and all
+ * draw from an optional per-run deadline, so a run can never take longer than
+ * run.deadline.seconds in total waiting. The deadline belongs to the thread
+ * that began the run, so flows running side by side (fleet checks, parallel
+ * tests) each keep their own.
+ */
+public class WaitPolicy {
+
+    /**
+     * Deadline of the run on one thread
+     */
+    private static final class RunDeadline {
+        final long budgetSeconds;
+        final long deadlineNanos;
+
+        RunDeadline(long budgetSeconds, long deadlineNanos) {
+            this.budgetSeconds = budgetSeconds;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private static final ThreadLocal<RunDeadline> runDeadline = new ThreadLocal<>();
+
+    /**
+     * Start this thread's run deadline from run.deadline.seconds (0 disables it)
+     */
+    public static void beginRun() {
+        int seconds = ConfigReader.getRunDeadlineSeconds();
+        if (seconds > 0) {
+            runDeadline.set(new RunDeadline(seconds, System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds)));
+        } else {
+            runDeadline.remove();
+        }
+    }
+
+    /**
+     * Get the implicit wait to configure on new drivers
+     */
+    public static Duration implicitWait() {
+        if (ConfigReader.isImplicitWaitEnabled()) {
+            return Duration.ofSeconds(ConfigReader.getImplicitWait());
+        }
+        return Duration.ZERO;
+    }
+
+    /**
+     * Get the page load timeout to configure on new drivers
+     */
+    public static Duration pageLoadTimeout() {
+        return Duration.ofSeconds(ConfigReader.getPageLoadTimeout());
+    }
+
+    /**
+     * Get the timeout for one element wait, capped by what is left of the run deadline
+     */
+    public static Duration stepTimeout() {
+        return capped(Duration.ofSeconds(ConfigReader.getTimeout()));
+    }
+
+    /**
+     * Cap a timeout by this thread's remaining run deadline; fails once the deadline is spent
+     */
+    public static Duration capped(Duration timeout) {
+        RunDeadline run = runDeadline.get();
+        if (run == null) {
+            return timeout;
+        }
+        long remaining = run.deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            throw new TimeoutException("Run deadline of " + run.budgetSeconds + " seconds exhausted");
+        }
+        return Duration.ofNanos(Math.min(timeout.toNanos(), remaining));
+    }
+
+    /**
+     * Poll a condition with exponential backoff until it returns a non-null,
+     * non-false value or the (capped) timeout expires
+     */
+    public static <T> T until(WebDriver driver, Function<WebDriver, T> condition, Duration timeout) {
+        Duration budget = capped(timeout);
+        long deadline = System.nanoTime() + budget.toNanos();
+        long backoff = ConfigReader.getWaitPollInitialMillis();
+        long maxBackoff = ConfigReader.getWaitPollMaxMillis();
+        RuntimeException lastError = null;
+
+        while (true) {
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    return value;
+                }
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastError = e;
+            }
+
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                throw new TimeoutException("Expected condition failed: waiting for " + condition
+                    + " (tried for " + budget.getSeconds() + " second(s) with backoff polling)", lastError);
+            }
+            try {
+                Thread.sleep(Math.min(backoff, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting for " + condition, e);
+            }
+            backoff = Math.min(backoff * 2, maxBackoff);
+        }
+    }
+
+    /**
+     * Check instantly that nothing matches the locator. Relies on implicit waits being off.
+     */
+    public static boolean isAbsent(WebDriver driver, By locator) {
+        return driver.findElements(locator).isEmpty();
+    }
+
+    /**
+     * Get the first backoff delay for polling loops
+     */
+    public static long pollInitialMillis() {
+        return ConfigReader.getWaitPollInitialMillis();
+    }
+
+    /**
+     * Get the largest backoff delay for polling loops
+     */
+    public static long pollMaxMillis() {
+        return ConfigReader.getWaitPollMaxMillis();
+    }
+}
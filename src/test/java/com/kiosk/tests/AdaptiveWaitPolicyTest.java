@@ -0,0 +1,45 @@
+package com.kiosk.tests;
+
+import com.kiosk.utils.AdaptiveWaitPolicy;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+
+/**
+ * Test class for the learned post-action wait budgets. Uses its own history
+ * file, so the user's learned budgets are not touched.
+ */
+public class AdaptiveWaitPolicyTest {
+
+    @BeforeClass
+    public void useTempHistory() throws Exception {
+        System.setProperty("adaptive.wait.history.path",
+            Files.createTempFile("wait-history", ".properties").toString());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void clearHistory() {
+        System.clearProperty("adaptive.wait.history.path");
+    }
+
+    @Test(priority = 1, description = "Verify a condition that never holds does not grow its budget past the fixed sleep")
+    public void testTimeoutsDoNotGrowBudget() {
+        String step = "test.neverMet." + System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            Assert.assertFalse(AdaptiveWaitPolicy.await(step, 300, () -> false));
+        }
+        Assert.assertEquals(AdaptiveWaitPolicy.budgetFor(step, 300), 300);
+    }
+
+    @Test(priority = 2, description = "Verify a condition that holds at once gets a budget below the fixed sleep")
+    public void testFastConditionShrinksBudget() {
+        String step = "test.met." + System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(AdaptiveWaitPolicy.await(step, 5000, () -> true));
+        }
+        Assert.assertTrue(AdaptiveWaitPolicy.budgetFor(step, 5000) < 5000);
+    }
+}
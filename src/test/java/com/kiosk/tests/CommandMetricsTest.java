@@ -0,0 +1,58 @@
+package com.kiosk.tests;
+
+import com.kiosk.utils.CommandMetrics;
+import com.kiosk.utils.LatencyHistogram;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for the command latency histograms and their export formats.
+ * Runs without a browser.
+ */
+public class CommandMetricsTest {
+
+    @Test(priority = 1, description = "Verify percentiles stay within the histogram's bucket precision")
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        Assert.assertEquals(histogram.getCount(), 100);
+        Assert.assertEquals(histogram.getMaxMicros(), 100_000);
+        assertWithin(histogram.percentileMicros(50), 50_000);
+        assertWithin(histogram.percentileMicros(95), 95_000);
+        assertWithin(histogram.percentileMicros(99), 99_000);
+        Assert.assertEquals(new LatencyHistogram().percentileMicros(99), 0);
+    }
+
+    @Test(priority = 2, description = "Verify JSON and Prometheus exports contain every series")
+    public void testExportFormats() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(20));
+        Map<String, LatencyHistogram> snapshot =
+            Collections.singletonMap("findElement|LoginPage.enterUsername", histogram);
+
+        String json = CommandMetrics.toJson(snapshot);
+        Assert.assertTrue(json.contains("\"command\": \"findElement\""), json);
+        Assert.assertTrue(json.contains("\"pageMethod\": \"LoginPage.enterUsername\""), json);
+        Assert.assertTrue(json.contains("\"count\": 1"), json);
+
+        String prom = CommandMetrics.toPrometheus(snapshot);
+        Assert.assertTrue(prom.contains("# TYPE kiosk_webdriver_command_seconds summary"), prom);
+        Assert.assertTrue(prom.contains(
+            "kiosk_webdriver_command_seconds_count{command=\"findElement\",page_method=\"LoginPage.enterUsername\"} 1"),
+            prom);
+        Assert.assertTrue(prom.contains("quantile=\"0.99\""), prom);
+    }
+
+    private static void assertWithin(long actualMicros, long expectedMicros) {
+        // Log-linear buckets are accurate to 1/8 of the value's power of two
+        Assert.assertTrue(actualMicros >= expectedMicros && actualMicros <= expectedMicros * 1.125,
+            "expected ~" + expectedMicros + "µs but was " + actualMicros + "µs");
+    }
+}
@@ -0,0 +1,43 @@
+package com.kiosk.tests;
+
+import com.kiosk.daemon.CronSchedule;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * Test class for the daemon's cron schedule.
+ */
+public class CronScheduleTest {
+
+    // A Wednesday
+    private static final ZonedDateTime WEDNESDAY = ZonedDateTime.of(2026, 10, 14, 10, 7, 30, 0, ZoneOffset.UTC);
+
+    @Test(priority = 1, description = "Verify steps, ranges and lists find the next matching minute")
+    public void testNextRun() {
+        Assert.assertEquals(CronSchedule.parse("*/15 * * * *").next(WEDNESDAY), at(14, 10, 15));
+        Assert.assertEquals(CronSchedule.parse("0,30 9-17 * * *").next(WEDNESDAY), at(14, 10, 30));
+        Assert.assertEquals(CronSchedule.parse("5 8 * * *").next(WEDNESDAY), at(15, 8, 5));
+        // Weekdays only: from Friday evening to Monday morning
+        Assert.assertEquals(CronSchedule.parse("0 7 * * 1-5").next(at(16, 18, 0)), at(19, 7, 0));
+        // Day of month and day of week both restricted: either matches (the 20th or a Sunday)
+        Assert.assertEquals(CronSchedule.parse("0 0 20 * 0").next(WEDNESDAY), at(18, 0, 0));
+        Assert.assertEquals(CronSchedule.parse("0 0 20 * 7").next(at(18, 0, 0)), at(20, 0, 0));
+        // A run exactly on a slot is followed by the next slot, not the same one
+        Assert.assertEquals(CronSchedule.parse("*/15 * * * *").next(at(14, 10, 15)), at(14, 10, 30));
+    }
+
+    @Test(priority = 2, description = "Verify malformed and impossible expressions are rejected")
+    public void testInvalidExpressions() {
+        for (String expression : new String[] {"* * * *", "60 * * * *", "5-1 * * * *", "x * * * *"}) {
+            Assert.assertThrows(IllegalArgumentException.class, () -> CronSchedule.parse(expression));
+        }
+        Assert.assertThrows(IllegalArgumentException.class, () -> CronSchedule.parse("0 0 31 2 *").next(WEDNESDAY));
+    }
+
+    private static ZonedDateTime at(int day, int hour, int minute) {
+        return ZonedDateTime.of(2026, 10, day, hour, minute, 0, 0, ZoneOffset.UTC);
+    }
+}
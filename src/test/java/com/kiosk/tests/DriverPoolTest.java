@@ -0,0 +1,159 @@
+package com.kiosk.tests;
+
+import com.kiosk.utils.DriverPool;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Test class for the driver pool's borrow, release and expiry bookkeeping,
+ * with sessions from a stubbed driver factory. Runs without a browser.
+ */
+public class DriverPoolTest {
+
+    private static final long BORROW_TIMEOUT_MILLIS = 300;
+
+    private final List<FakeSession> started = new ArrayList<>();
+
+    @Test(priority = 1, description = "Verify a released session is reset and lent out again")
+    public void testReleasedSessionIsReused() {
+        DriverPool pool = pool(2, 60_000, 10, () -> 0);
+        try {
+            WebDriver first = pool.borrow();
+            pool.release(first);
+            WebDriver second = pool.borrow();
+
+            Assert.assertSame(second, first);
+            Assert.assertEquals(started.size(), 1);
+            Assert.assertEquals(started.get(0).blankLoads, 1, "release should reset the session");
+            Assert.assertEquals(pool.getMisses(), 1);
+            Assert.assertEquals(pool.getHits(), 1);
+            Assert.assertEquals(pool.getLiveCount(), 1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(priority = 2, description = "Verify sessions past their use or idle limit are quit instead of reused")
+    public void testExpiredSessionsAreRetired() throws InterruptedException {
+        DriverPool byUses = pool(2, 60_000, 1, () -> 0);
+        try {
+            byUses.release(byUses.borrow());
+
+            Assert.assertTrue(started.get(0).quit, "a session at its use limit should be quit on release");
+            Assert.assertEquals(byUses.getLiveCount(), 0);
+        } finally {
+            byUses.shutdown();
+        }
+
+        started.clear();
+        DriverPool byIdle = pool(2, 50, 10, () -> 0);
+        try {
+            byIdle.release(byIdle.borrow());
+            Thread.sleep(100);
+            WebDriver next = byIdle.borrow();
+
+            Assert.assertTrue(started.get(0).quit, "an idle session past its timeout should be quit");
+            Assert.assertSame(next, started.get(1).driver);
+            Assert.assertEquals(byIdle.getLiveCount(), 1);
+        } finally {
+            byIdle.shutdown();
+        }
+    }
+
+    @Test(priority = 3, description = "Verify the live count bounds the browsers and frees up on invalidate")
+    public void testLiveCountBoundsSessions() {
+        DriverPool pool = pool(1, 60_000, 10, () -> 0);
+        try {
+            WebDriver borrowed = pool.borrow();
+            Assert.assertEquals(pool.getLiveCount(), 1);
+
+            Assert.expectThrows(IllegalStateException.class, pool::borrow);
+            Assert.assertEquals(started.size(), 1, "a full pool should not start another browser");
+
+            pool.invalidate(borrowed);
+            Assert.assertEquals(pool.getLiveCount(), 0);
+            Assert.assertTrue(started.get(0).quit);
+
+            pool.borrow();
+            Assert.assertEquals(started.size(), 2);
+            Assert.assertEquals(pool.getLiveCount(), 1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(priority = 4, description = "Verify the recorded wait includes starting the session")
+    public void testWaitIncludesSessionStart() {
+        DriverPool pool = pool(1, 60_000, 10, () -> 200);
+        try {
+            pool.borrow();
+
+            Assert.assertTrue(pool.getTotalWaitMillis() >= 200,
+                "wait should cover the browser start, was " + pool.getTotalWaitMillis() + "ms");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private DriverPool pool(int maxSize, long idleTimeoutMillis, int maxUses, Supplier<Integer> startMillis) {
+        started.clear();
+        return new DriverPool("fake", maxSize, idleTimeoutMillis, maxUses, BORROW_TIMEOUT_MILLIS, () -> {
+            try {
+                Thread.sleep(startMillis.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            FakeSession session = new FakeSession();
+            started.add(session);
+            return session.driver;
+        });
+    }
+
+    /**
+     * Minimal browser session with one window that records resets and quit
+     */
+    private static class FakeSession {
+        int blankLoads;
+        boolean quit;
+        final WebDriver driver;
+
+        FakeSession() {
+            Object stub = Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebDriver.Options.class, WebDriver.TargetLocator.class},
+                (proxy, method, args) -> null);
+            driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "quit":
+                            quit = true;
+                            return null;
+                        case "get":
+                            if ("about:blank".equals(args[0])) {
+                                blankLoads++;
+                            }
+                            return null;
+                        case "getWindowHandles":
+                            return new HashSet<>(Collections.singleton("window-1"));
+                        case "manage":
+                        case "switchTo":
+                            return stub;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.kiosk.tests;
+
+import com.kiosk.fleet.CredentialResolver;
+import com.kiosk.fleet.FleetTarget;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Test class for reading fleet targets and resolving their credential references.
+ */
+public class FleetTargetTest {
+
+    @Test(priority = 1, description = "Verify the targets file is parsed and comments are skipped")
+    public void testLoadTargets() throws IOException {
+        Path file = Files.createTempFile("fleet-targets", ".csv");
+        try {
+            Files.write(file, ("# lobby kiosks\n"
+                + "https://kiosk-01.example/user, arun10, env:KIOSK_01_PASSWORD, lobby-01\n"
+                + "\n"
+                + "https://kiosk-02.example/user,arun11,prop:kiosk02.password\n").getBytes(StandardCharsets.UTF_8));
+
+            List<FleetTarget> targets = FleetTarget.load(file);
+
+            Assert.assertEquals(targets.size(), 2);
+            Assert.assertEquals(targets.get(0).getName(), "lobby-01");
+            Assert.assertEquals(targets.get(0).getUsername(), "arun10");
+            Assert.assertEquals(targets.get(0).getCredentialRef(), "env:KIOSK_01_PASSWORD");
+            Assert.assertEquals(targets.get(1).getName(), "https://kiosk-02.example/user");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(priority = 2, description = "Verify credential references resolve and bad ones fail without the value")
+    public void testResolveCredentials() throws IOException {
+        System.setProperty("fleet.test.password", "from-property");
+        Path secret = Files.createTempFile("kiosk-secret", ".txt");
+        try {
+            Files.write(secret, "from-file\n".getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(CredentialResolver.resolve("prop:fleet.test.password"), "from-property");
+            Assert.assertEquals(CredentialResolver.resolve("file:" + secret), "from-file");
+
+            try {
+                CredentialResolver.resolve("hunter2");
+                Assert.fail("A plain password must not be accepted");
+            } catch (IllegalArgumentException e) {
+                Assert.assertFalse(e.getMessage().contains("hunter2"), e.getMessage());
+            }
+        } finally {
+            System.clearProperty("fleet.test.password");
+            Files.deleteIfExists(secret);
+        }
+    }
+}
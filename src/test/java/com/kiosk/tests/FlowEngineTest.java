@@ -0,0 +1,250 @@
+package com.kiosk.tests;
+
+import com.kiosk.flow.FlowEngine;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for the checkpoint/resume flow engine, run against in-memory
+ * stand-ins for browser sessions that can be made to crash.
+ */
+public class FlowEngineTest {
+
+    private static final String HOME = "http://kiosk.test/home";
+
+    private Path checkpointDir;
+
+    @BeforeClass
+    public void useTempCheckpointDir() throws Exception {
+        checkpointDir = Files.createTempDirectory("flow-checkpoints");
+        System.setProperty("flow.checkpoint.dir", checkpointDir.toString());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void clearCheckpointDir() {
+        System.clearProperty("flow.checkpoint.dir");
+    }
+
+    @Test(priority = 1, description = "Verify a crashed session is replaced and the flow resumes after its last step")
+    @SuppressWarnings("unchecked")
+    public void testResumesAfterCrash() {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger logins = new AtomicInteger();
+        FakeSession first = new FakeSession();
+        FakeSession[] replacement = new FakeSession[1];
+        FlowEngine flow = new FlowEngine("test-crash-" + System.nanoTime(), () -> {
+            created.incrementAndGet();
+            replacement[0] = new FakeSession();
+            return replacement[0].driver;
+        })
+            .step("navigate", driver -> driver.get(HOME))
+            .step("login", driver -> driver.manage().addCookie(
+                new Cookie("SESSION", "session-" + logins.incrementAndGet(), "/")))
+            .step("check", driver -> {
+                if (driver == first.driver) {
+                    first.alive = false;
+                    throw new NoSuchSessionException("browser crashed");
+                }
+                Assert.assertNotNull(driver.manage().getCookieNamed("SESSION"), "session should be restored");
+            });
+        try {
+            Map<String, Object> report = flow.run(first.driver);
+
+            Assert.assertEquals(created.get(), 1);
+            Assert.assertEquals(logins.get(), 1, "completed steps should not run again");
+            Assert.assertSame(flow.getDriver(), replacement[0].driver);
+            Assert.assertEquals(replacement[0].url, HOME);
+            Assert.assertEquals(replacement[0].cookies.get("SESSION").getValue(), "session-1");
+            List<Map<String, Object>> recoveries = (List<Map<String, Object>>) report.get("recoveries");
+            Assert.assertEquals(recoveries.size(), 1);
+            Assert.assertEquals(recoveries.get(0).get("newDriver"), true);
+            Assert.assertEquals(recoveries.get(0).get("resumeAt"), "check");
+        } finally {
+            flow.deleteCheckpoint();
+        }
+    }
+
+    @Test(priority = 2, description = "Verify a step that keeps failing gives up once the retry budget is spent")
+    @SuppressWarnings("unchecked")
+    public void testRetryBudget() {
+        AtomicInteger created = new AtomicInteger();
+        FakeSession session = new FakeSession();
+        FlowEngine flow = new FlowEngine("test-budget-" + System.nanoTime(), () -> {
+            created.incrementAndGet();
+            return new FakeSession().driver;
+        })
+            .step("navigate", driver -> driver.get(HOME))
+            .step("broken", driver -> {
+                throw new WebDriverException("element never appears");
+            });
+        try {
+            Assert.expectThrows(WebDriverException.class, () -> flow.run(session.driver));
+
+            // The default budget of 2 recoveries; the session stayed alive so it was reused
+            Assert.assertEquals(created.get(), 0);
+            Map<String, Object> report = flow.getReport();
+            Assert.assertEquals(((List<Object>) report.get("recoveries")).size(), 2);
+            Map<String, Object> broken = ((List<Map<String, Object>>) report.get("steps")).get(1);
+            // The second failure came straight after a restore, so the flow went back to navigate
+            Assert.assertEquals(broken.get("attempts"), 3);
+        } finally {
+            flow.deleteCheckpoint();
+        }
+    }
+
+    @Test(priority = 3, description = "Verify a dead session is recovered when a page object wraps the exception")
+    @SuppressWarnings("unchecked")
+    public void testRecoversFromWrappedFailure() {
+        FakeSession first = new FakeSession();
+        List<Set<PosixFilePermission>> checkpointPermissions = new ArrayList<>();
+        FlowEngine flow = new FlowEngine("test-wrapped-" + System.nanoTime(), () -> new FakeSession().driver)
+            .step("navigate", driver -> driver.get(HOME))
+            .step("login", driver -> {
+                checkpointPermissions.addAll(permissionsOfCheckpoints());
+                // As page objects do: any failure is rethrown with a message of their own
+                try {
+                    if (driver == first.driver) {
+                        first.alive = false;
+                    }
+                    driver.manage().addCookie(new Cookie("SESSION", "session-1", "/"));
+                } catch (Exception e) {
+                    throw new RuntimeException("Failed to log in: " + e.getMessage(), e);
+                }
+            });
+        try {
+            Map<String, Object> report = flow.run(first.driver);
+
+            List<Map<String, Object>> recoveries = (List<Map<String, Object>>) report.get("recoveries");
+            Assert.assertEquals(recoveries.size(), 1);
+            Assert.assertEquals(recoveries.get(0).get("newDriver"), true);
+            Assert.assertTrue(String.valueOf(recoveries.get(0).get("error")).startsWith("NoSuchSessionException"));
+            if (checkpointDir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Assert.assertFalse(checkpointPermissions.isEmpty(), "checkpoint should be saved after navigate");
+                for (Set<PosixFilePermission> permissions : checkpointPermissions) {
+                    Assert.assertEquals(permissions, PosixFilePermissions.fromString("rw-------"));
+                }
+            }
+        } finally {
+            flow.deleteCheckpoint();
+        }
+    }
+
+    @Test(priority = 4, description = "Verify a failure that is not the browser's is not retried")
+    public void testOtherFailuresAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        FlowEngine flow = new FlowEngine("test-other-" + System.nanoTime(), () -> new FakeSession().driver)
+            .step("broken", driver -> {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("bad configuration");
+            });
+        try {
+            Assert.expectThrows(IllegalStateException.class, () -> flow.run(new FakeSession().driver));
+            Assert.assertEquals(attempts.get(), 1);
+        } finally {
+            flow.deleteCheckpoint();
+        }
+    }
+
+    private List<Set<PosixFilePermission>> permissionsOfCheckpoints() {
+        List<Set<PosixFilePermission>> permissions = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(checkpointDir, "*.json")) {
+            for (Path file : files) {
+                if (checkpointDir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                    permissions.add(Files.getPosixFilePermissions(file));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return permissions;
+    }
+
+    /**
+     * Minimal browser session: a current URL, a cookie jar and empty web storage.
+     * Once it is no longer alive every command fails as a dead session would.
+     */
+    private static class FakeSession {
+        final Map<String, Cookie> cookies = new HashMap<>();
+        String url = "about:blank";
+        boolean alive = true;
+        final WebDriver driver;
+
+        FakeSession() {
+            WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebDriver.Options.class}, (proxy, method, args) -> {
+                    checkAlive();
+                    switch (method.getName()) {
+                        case "getCookies":
+                            return new HashSet<>(cookies.values());
+                        case "getCookieNamed":
+                            return cookies.get(args[0]);
+                        case "addCookie":
+                            Cookie cookie = (Cookie) args[0];
+                            cookies.put(cookie.getName(), cookie);
+                            return null;
+                        case "deleteAllCookies":
+                            cookies.clear();
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+            driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    if ("quit".equals(method.getName())) {
+                        alive = false;
+                        return null;
+                    }
+                    checkAlive();
+                    switch (method.getName()) {
+                        case "get":
+                            url = (String) args[0];
+                            return null;
+                        case "getCurrentUrl":
+                            return url;
+                        case "getWindowHandles":
+                            return new HashSet<>(Collections.singleton("window-1"));
+                        case "manage":
+                            return options;
+                        case "executeScript":
+                            Map<String, Object> storage = new HashMap<>();
+                            storage.put("local", Collections.emptyMap());
+                            storage.put("session", Collections.emptyMap());
+                            return storage;
+                        default:
+                            return null;
+                    }
+                });
+        }
+
+        private void checkAlive() {
+            if (!alive) {
+                throw new NoSuchSessionException("session deleted");
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.kiosk.tests;
+
+import com.kiosk.server.KioskStandInServer;
+import com.kiosk.utils.HttpLoginClient;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Test class for the protocol-level login against the local stand-in kiosk server.
+ * Runs without a browser.
+ */
+public class HttpLoginClientTest {
+
+    private KioskStandInServer server;
+    private String loginUrl;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new KioskStandInServer(0, false, 0, 0, 0, 0, "arun10", "test");
+        server.start();
+        loginUrl = server.getLoginUrl();
+    }
+
+    @Test(description = "Protocol login posts the form and captures the session cookie")
+    public void testSuccessfulProtocolLogin() {
+        HttpLoginClient.Result result = new HttpLoginClient(Duration.ofSeconds(5))
+            .login(loginUrl, "arun10", "test");
+
+        Assert.assertTrue(result.isSuccess(), result.getMessage());
+        Assert.assertEquals(result.getFinalUri().getPath(), "/home");
+        Assert.assertEquals(result.getCookies().size(), 1);
+        Assert.assertEquals(result.getCookies().get(0).getName(), "KIOSK_SESSION");
+        System.out.println("Protocol login took " + result.getElapsedMillis() + "ms");
+    }
+
+    @Test(description = "Protocol login reports failure for rejected credentials")
+    public void testRejectedProtocolLogin() {
+        HttpLoginClient.Result result = new HttpLoginClient(Duration.ofSeconds(5))
+            .login(loginUrl, "invalid_user", "invalid_pass");
+
+        Assert.assertFalse(result.isSuccess());
+        Assert.assertTrue(result.getCookies().isEmpty());
+    }
+
+    @Test(description = "A login post without the form's CSRF token is refused")
+    public void testPostWithoutCsrfTokenIsRefused() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        HttpRequest post = HttpRequest.newBuilder(URI.create(loginUrl).resolve("/login"))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString("username=arun10&password=test"))
+            .build();
+
+        HttpResponse<Void> response = client.send(post, HttpResponse.BodyHandlers.discarding());
+
+        Assert.assertEquals(response.headers().firstValue("Location").orElse(""), "/user?error=1");
+        Assert.assertTrue(response.headers().allValues("Set-Cookie").isEmpty(), "no session should be issued");
+    }
+
+    @Test(description = "Protocol login reports failure when the server is unreachable")
+    public void testUnreachableServer() {
+        HttpLoginClient.Result result = new HttpLoginClient(Duration.ofSeconds(2))
+            .login("http://127.0.0.1:1/user", "arun10", "test");
+
+        Assert.assertFalse(result.isSuccess());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+}
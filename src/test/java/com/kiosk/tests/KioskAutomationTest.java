@@ -1,6 +1,7 @@
 package com.kiosk.tests;
 
 import com.kiosk.pages.LoginPage;
+import com.kiosk.utils.AdaptiveWaitPolicy;
 import com.kiosk.utils.ConfigReader;
 import com.kiosk.utils.DriverManager;
 import org.openqa.selenium.WebDriver;
@@ -12,7 +13,9 @@ import org.testng.annotations.Test;
 /**
  * Main automation test class for kiosk system.
  * This class demonstrates the complete automation flow.
+ * Its steps share one session, so they stay on one thread in parallel runs.
  */
+@Test(singleThreaded = true)
 public class KioskAutomationTest {
     
     private WebDriver driver;
@@ -24,8 +27,8 @@ public class KioskAutomationTest {
         System.out.println("Browser: " + ConfigReader.getBrowser());
         System.out.println("Kiosk URL: " + ConfigReader.getKioskUrl());
         
-        // Initialize driver
-        driver = DriverManager.initializeDriver(ConfigReader.getBrowser());
+        // Borrow a warm driver session from the pool
+        driver = DriverManager.borrowDriver(ConfigReader.getBrowser());
         
         // Navigate to kiosk
         driver.get(ConfigReader.getKioskUrl());
@@ -80,11 +83,7 @@ public class KioskAutomationTest {
         System.out.println("Login action completed");
         
         // Wait for navigation/redirect after login
-        try {
-            Thread.sleep(5000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        AdaptiveWaitPolicy.await("test.postLogin", 5000, loginPage::isLoginFormGone);
         
         // Verify we've navigated away from login page
         String currentUrl = driver.getCurrentUrl();
@@ -121,8 +120,8 @@ public class KioskAutomationTest {
         // Take final screenshot (optional)
         // You can implement screenshot saving logic here
         
-        // Close and quit driver
-        DriverManager.quitDriver();
-        System.out.println("Browser closed successfully");
+        // Return driver session to the pool
+        DriverManager.releaseDriver();
+        System.out.println("Browser session released");
     }
 }
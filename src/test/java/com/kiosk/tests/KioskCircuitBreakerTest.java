@@ -0,0 +1,71 @@
+package com.kiosk.tests;
+
+import com.kiosk.server.KioskStandInServer;
+import com.kiosk.utils.KioskCircuitBreaker;
+import com.kiosk.utils.KioskCircuitBreaker.State;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+
+/**
+ * Test class for the persistent kiosk circuit breaker, probing the local stand-in server.
+ */
+public class KioskCircuitBreakerTest {
+
+    @Test(priority = 1, description = "Verify a failed probe opens the breaker across runs and backs off exponentially")
+    public void testOpensAndBacksOff() throws IOException, InterruptedException {
+        File stateFile = Files.createTempFile("kiosk-breaker", ".properties").toFile();
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        String url = "http://127.0.0.1:" + port + "/user";
+        try {
+            KioskCircuitBreaker breaker = new KioskCircuitBreaker(stateFile, url, 200, 1000);
+            Assert.assertTrue(breaker.allowRun());
+            Assert.assertFalse(breaker.preflight(url, 2000));
+            Assert.assertEquals(breaker.getState(), State.OPEN);
+
+            // The next scheduled run, in a new JVM, sees the open breaker and skips
+            KioskCircuitBreaker nextRun = new KioskCircuitBreaker(stateFile, url, 200, 1000);
+            Assert.assertFalse(nextRun.allowRun());
+
+            Thread.sleep(250);
+            Assert.assertTrue(nextRun.allowRun(), "the back-off has passed");
+            Assert.assertEquals(nextRun.getState(), State.HALF_OPEN);
+            Assert.assertFalse(nextRun.preflight(url, 2000));
+            Assert.assertEquals(nextRun.getState(), State.OPEN);
+            Assert.assertEquals(nextRun.getFailures(), 2);
+            Assert.assertEquals(nextRun.getBackoffMillis(), 400);
+        } finally {
+            Files.deleteIfExists(stateFile.toPath());
+        }
+    }
+
+    @Test(priority = 2, description = "Verify a successful probe after the back-off closes the breaker")
+    public void testClosesWhenKioskIsBack() throws IOException, InterruptedException {
+        File stateFile = Files.createTempFile("kiosk-breaker", ".properties").toFile();
+        KioskStandInServer server = new KioskStandInServer(0, false, 0, 0, 0, 0, "arun10", "test");
+        server.start();
+        try {
+            KioskCircuitBreaker breaker = new KioskCircuitBreaker(stateFile, server.getLoginUrl(), 50, 1000);
+            breaker.recordFailure("connection refused");
+            Assert.assertFalse(breaker.allowRun());
+
+            Thread.sleep(100);
+            Assert.assertTrue(breaker.allowRun());
+            Assert.assertTrue(breaker.preflight(server.getLoginUrl(), 2000));
+            Assert.assertEquals(breaker.getState(), State.CLOSED);
+            Assert.assertEquals(breaker.getFailures(), 0);
+            Assert.assertEquals(new KioskCircuitBreaker(stateFile, server.getLoginUrl(), 50, 1000).getState(),
+                State.CLOSED);
+        } finally {
+            server.stop();
+            Files.deleteIfExists(stateFile.toPath());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.kiosk.tests;
+
+import com.kiosk.server.KioskStandInServer;
+import com.kiosk.utils.KioskProbe;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * Test class for the kiosk reachability probe, run against the local stand-in server.
+ */
+public class KioskProbeTest {
+
+    @Test(priority = 1, description = "Verify the probe connects and completes a TLS handshake with a self-signed server")
+    public void testProbeReachableHost() throws IOException {
+        KioskStandInServer server = new KioskStandInServer(0, true, 0, 0, 0, 0, "arun10", "test");
+        server.start();
+        try {
+            KioskProbe.Result result = KioskProbe.probe(server.getLoginUrl(), 5000);
+            Assert.assertEquals(result.getHost(), "127.0.0.1");
+            Assert.assertTrue(result.getTlsMillis() >= 0, "https should be probed with a handshake");
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test(priority = 2, description = "Verify the probe fails when nothing listens on the kiosk port")
+    public void testProbeUnreachableHost() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        String url = "http://127.0.0.1:" + port + "/user";
+        IOException error = Assert.expectThrows(IOException.class, () -> KioskProbe.probe(url, 2000));
+        Assert.assertTrue(error.getMessage().contains("unreachable"), error.getMessage());
+    }
+}
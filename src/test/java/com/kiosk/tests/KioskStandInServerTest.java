@@ -0,0 +1,78 @@
+package com.kiosk.tests;
+
+import com.kiosk.server.KioskStandInServer;
+import com.kiosk.utils.HttpLoginClient;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Test class for the local stand-in kiosk server, exercised through the
+ * protocol-level login client. Runs without a browser or network.
+ */
+public class KioskStandInServerTest {
+
+    @Test(priority = 1, description = "Verify the stand-in accepts the configured credentials over HTTP")
+    public void testLoginOverHttp() throws IOException {
+        KioskStandInServer server = new KioskStandInServer(0, false, 0, 0, 0, 0, "arun10", "test");
+        server.start();
+        try {
+            HttpLoginClient.Result result = new HttpLoginClient(Duration.ofSeconds(5))
+                .login(server.getLoginUrl(), "arun10", "test");
+            Assert.assertTrue(result.isSuccess(), result.getMessage());
+            Assert.assertEquals(result.getFinalUri().getPath(), "/home");
+
+            HttpLoginClient.Result rejected = new HttpLoginClient(Duration.ofSeconds(5))
+                .login(server.getLoginUrl(), "arun10", "wrong");
+            Assert.assertFalse(rejected.isSuccess());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test(priority = 2, description = "Verify the stand-in serves HTTPS with a self-signed certificate accepted only when allowed")
+    public void testLoginOverTls() throws IOException {
+        KioskStandInServer server = new KioskStandInServer(0, true, 0, 0, 0, 0, "arun10", "test");
+        server.start();
+        try {
+            Assert.assertTrue(server.getLoginUrl().startsWith("https://"));
+            HttpLoginClient.Result rejected = new HttpLoginClient(Duration.ofSeconds(5), false)
+                .login(server.getLoginUrl(), "arun10", "test");
+            Assert.assertFalse(rejected.isSuccess(), "the self-signed certificate should be refused by default");
+
+            HttpLoginClient.Result result = new HttpLoginClient(Duration.ofSeconds(5), true)
+                .login(server.getLoginUrl(), "arun10", "test");
+            Assert.assertTrue(result.isSuccess(), result.getMessage());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test(priority = 3, description = "Verify configured latency is applied and errors are injected")
+    public void testLatencyAndErrors() throws IOException {
+        KioskStandInServer slow = new KioskStandInServer(0, false, 100, 0, 0, 0, "arun10", "test");
+        slow.start();
+        try {
+            HttpLoginClient.Result result = new HttpLoginClient(Duration.ofSeconds(5))
+                .login(slow.getLoginUrl(), "arun10", "test");
+            Assert.assertTrue(result.isSuccess(), result.getMessage());
+            // Form fetch, post and redirect each wait out the latency
+            Assert.assertTrue(result.getElapsedMillis() >= 300,
+                "Login took " + result.getElapsedMillis() + "ms with 100ms latency per request");
+        } finally {
+            slow.stop();
+        }
+
+        KioskStandInServer failing = new KioskStandInServer(0, false, 0, 0, 0, 1.0, "arun10", "test");
+        failing.start();
+        try {
+            HttpLoginClient.Result result = new HttpLoginClient(Duration.ofSeconds(5))
+                .login(failing.getLoginUrl(), "arun10", "test");
+            Assert.assertFalse(result.isSuccess());
+        } finally {
+            failing.stop();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.kiosk.tests;
+
+import com.kiosk.base.ResilientElement;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for the element handles behind generated page-object accessors.
+ * Runs without a browser.
+ */
+public class ResilientElementTest {
+
+    @Test(priority = 1, description = "Verify elements are only looked up on first use and then reused")
+    public void testLazyLookup() {
+        CountingContext context = new CountingContext(0);
+        ResilientElement element = new ResilientElement(context, By.id("login-button"), "LoginPage.loginButton");
+        Assert.assertEquals(context.lookups.get(), 0);
+
+        Assert.assertEquals(element.getText(), "Login");
+        Assert.assertEquals(element.getText(), "Login");
+        Assert.assertEquals(context.lookups.get(), 1);
+    }
+
+    @Test(priority = 2, description = "Verify a stale element is looked up again and the retry is counted")
+    public void testStaleElementIsReResolved() {
+        CountingContext context = new CountingContext(1);
+        ResilientElement element = new ResilientElement(context, By.id("login-button"), "LoginPage.loginButton");
+        long retriesBefore = ResilientElement.getStaleRetries();
+
+        Assert.assertEquals(element.getText(), "Login");
+        Assert.assertEquals(context.lookups.get(), 2);
+        Assert.assertEquals(ResilientElement.getStaleRetries() - retriesBefore, 1);
+    }
+
+    /**
+     * Search context whose first staleCount elements are already detached from the page
+     */
+    private static class CountingContext implements SearchContext {
+        final AtomicInteger lookups = new AtomicInteger();
+        private final int staleCount;
+
+        CountingContext(int staleCount) {
+            this.staleCount = staleCount;
+        }
+
+        @Override
+        public WebElement findElement(By by) {
+            boolean stale = lookups.incrementAndGet() <= staleCount;
+            return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {WebElement.class},
+                (proxy, method, args) -> {
+                    if (stale) {
+                        throw new StaleElementReferenceException("element is not attached to the page document");
+                    }
+                    return "getText".equals(method.getName()) ? "Login" : null;
+                });
+        }
+
+        @Override
+        public List<WebElement> findElements(By by) {
+            return Collections.singletonList(findElement(by));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.kiosk.tests;
+
+import com.kiosk.utils.StateScheduler;
+import com.kiosk.utils.StateScheduler.Kind;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for the prefix-sharing state scheduler, run against in-memory
+ * stand-ins for browser sessions.
+ */
+public class StateSchedulerTest {
+
+    private static final String HOME = "http://kiosk.test/home";
+    private static final AtomicInteger suffix = new AtomicInteger();
+
+    private final AtomicInteger navigations = new AtomicInteger();
+    private final AtomicInteger logins = new AtomicInteger();
+    private String page;
+    private String loggedIn;
+    private long restoresBefore;
+    private long removedNavigationsBefore;
+    private long removedLoginsBefore;
+    private long restorePageLoadsBefore;
+
+    @BeforeMethod
+    public void defineStates() {
+        // Fresh state names, so snapshots from other tests in the suite are not touched
+        int id = suffix.incrementAndGet();
+        page = "test.page." + id;
+        loggedIn = "test.loggedIn." + id;
+        navigations.set(0);
+        logins.set(0);
+        StateScheduler.define(page, null, Kind.NAVIGATION,
+            driver -> {
+                navigations.incrementAndGet();
+                driver.get("http://kiosk.test/user");
+            }, null);
+        StateScheduler.define(loggedIn, page, Kind.LOGIN,
+            driver -> {
+                // Every login creates a new session
+                driver.manage().addCookie(new Cookie("SESSION", "session-" + logins.incrementAndGet(), "/"));
+                driver.get(HOME);
+            },
+            driver -> driver.manage().getCookieNamed("SESSION") != null);
+        restoresBefore = StateScheduler.getRestores();
+        removedNavigationsBefore = StateScheduler.getRemoved(Kind.NAVIGATION);
+        removedLoginsBefore = StateScheduler.getRemoved(Kind.LOGIN);
+        restorePageLoadsBefore = StateScheduler.getRestorePageLoads();
+    }
+
+    @Test(priority = 1, description = "Verify a shared prefix runs once and later sessions restore it")
+    public void testPrefixRunsOnce() {
+        for (int i = 0; i < 3; i++) {
+            FakeSession session = new FakeSession();
+            StateScheduler.enter(session.driver, loggedIn);
+            Assert.assertEquals(session.url, HOME);
+            Assert.assertTrue(session.cookies.containsKey("SESSION"), "session cookie should be restored");
+        }
+
+        Assert.assertEquals(navigations.get(), 1);
+        Assert.assertEquals(logins.get(), 1);
+        Assert.assertEquals(StateScheduler.getRestores() - restoresBefore, 2);
+        Assert.assertEquals(StateScheduler.getRemoved(Kind.NAVIGATION) - removedNavigationsBefore, 2);
+        Assert.assertEquals(StateScheduler.getRemoved(Kind.LOGIN) - removedLoginsBefore, 2);
+        // Each restore from about:blank loads the page, then reloads it with the cookie
+        Assert.assertEquals(StateScheduler.getRestorePageLoads() - restorePageLoadsBefore, 4);
+        Assert.assertEquals(StateScheduler.getNetRemovedNavigations()
+            - (removedNavigationsBefore - restorePageLoadsBefore), 2 - 4);
+    }
+
+    @Test(priority = 2, description = "Verify a snapshot that fails its check is rebuilt")
+    public void testInvalidSnapshotIsRebuilt() {
+        StateScheduler.enter(new FakeSession().driver, loggedIn);
+
+        // The server no longer accepts the first session, so its restored cookie is dropped
+        FakeSession rejecting = new FakeSession();
+        rejecting.rejectedValue = "session-1";
+        StateScheduler.enter(rejecting.driver, loggedIn);
+
+        Assert.assertEquals(logins.get(), 2);
+        Assert.assertEquals(rejecting.cookies.get("SESSION").getValue(), "session-2");
+        Assert.assertEquals(StateScheduler.getRestores() - restoresBefore, 1, "the parent state is still restored");
+    }
+
+    /**
+     * Minimal browser session: a current URL, a cookie jar and empty web storage
+     */
+    private static class FakeSession {
+        final Map<String, Cookie> cookies = new HashMap<>();
+        String url = "about:blank";
+        String rejectedValue;
+        final WebDriver driver;
+
+        FakeSession() {
+            WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebDriver.Options.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getCookies":
+                            return new HashSet<>(cookies.values());
+                        case "getCookieNamed":
+                            return cookies.get(args[0]);
+                        case "addCookie":
+                            Cookie cookie = (Cookie) args[0];
+                            if (!cookie.getValue().equals(rejectedValue)) {
+                                cookies.put(cookie.getName(), cookie);
+                            }
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+            driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "get":
+                            url = (String) args[0];
+                            return null;
+                        case "getCurrentUrl":
+                            return url;
+                        case "manage":
+                            return options;
+                        case "executeScript":
+                            Map<String, Object> storage = new HashMap<>();
+                            storage.put("local", Collections.emptyMap());
+                            storage.put("session", Collections.emptyMap());
+                            return storage;
+                        default:
+                            return null;
+                    }
+                });
+        }
+    }
+}